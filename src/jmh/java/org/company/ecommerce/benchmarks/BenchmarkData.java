@@ -0,0 +1,99 @@
+package org.company.ecommerce.benchmarks;
+
+import org.company.ecommerce.ECommerceOrderManagementSystemApplication;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.models.Product;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic data for the benchmarks: every generator is driven by a Random seeded with SEED.
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+
+    static final String[] CATEGORIES = {
+            "electronics", "apparel", "kitchen", "garden", "toys", "books", "sports", "beauty"
+    };
+
+    private static final String[] WORDS = {
+            "wireless", "organic", "cotton", "steel", "compact", "deluxe", "portable", "classic",
+            "smart", "vintage", "ceramic", "leather", "bamboo", "carbon", "glass", "linen"
+    };
+
+    private static final String[] NOUNS = {
+            "headphones", "shirt", "kettle", "planter", "puzzle", "notebook", "racket", "serum",
+            "lamp", "backpack", "blender", "jacket", "speaker", "mug", "helmet", "chair"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    public static Product product(Random random) {
+        Product p = new Product();
+        p.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + " " + random.nextInt(100_000));
+        p.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        p.setPrice(BigDecimal.valueOf(99 + random.nextInt(50_000), 2).setScale(2, RoundingMode.UNNECESSARY));
+        p.setStock(1_000_000);
+        p.setIsActive(true);
+        p.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)));
+        return p;
+    }
+
+    // detached products with ids assigned, for benchmarks that never touch the database
+    public static List<Product> detachedProducts(int count, Random random) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product p = product(random);
+            p.setId((long) i + 1);
+            products.add(p);
+        }
+        return products;
+    }
+
+    public static CreateOrderRequest orderRequest(List<Product> products, int lines, Random random) {
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setCustomerName("Benchmark Customer");
+        req.setCustomerEmail("customer" + random.nextInt(1_000) + "@example.com");
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+            item.setProductId(products.get(random.nextInt(products.size())).getId());
+            item.setQuantity(1 + random.nextInt(5));
+            items.add(item);
+        }
+        req.setItems(items);
+        return req;
+    }
+
+    public static String searchTerm(Random random) {
+        return random.nextBoolean() ? WORDS[random.nextInt(WORDS.length)] : NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    public static String category(Random random) {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    // Boots the application without a web server against the H2 (PostgreSQL mode) test profile.
+    public static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(ECommerceOrderManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+    }
+}
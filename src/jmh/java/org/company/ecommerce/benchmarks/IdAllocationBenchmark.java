@@ -0,0 +1,110 @@
+package org.company.ecommerce.benchmarks;
+
+import org.company.ecommerce.id.IdBlockAllocator;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// 16 threads drawing ids: a nextval per id, Hibernate's pooled-lo optimizer (one nextval per
+// 50 ids, handed out under a lock, refilled inline) and IdBlockAllocator (same blocks, lock-free,
+// refilled in the background). Throughput is ids/us; SampleTime gives the p99/p99.9 per id.
+// H2 answers nextval in-process, so rttMicros adds the network round trip a real database costs.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class IdAllocationBenchmark {
+
+    private static final int BLOCK = 50;
+
+    @Param({"0", "300"})
+    private long rttMicros;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private Optimizer pooledLo;
+    private AccessCallback pooledLoSource;
+    private IdBlockAllocator allocator;
+    private ExecutorService prefetcher;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("create sequence if not exists bench_row_seq");
+        jdbc.execute("create sequence if not exists bench_pooled_seq increment by " + BLOCK);
+        jdbc.execute("create sequence if not exists bench_block_seq increment by " + BLOCK);
+
+        pooledLo = OptimizerFactory.buildOptimizer(StandardOptimizerDescriptor.POOLED_LO, Long.class, BLOCK, 1);
+        pooledLoSource = new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class)
+                        .initialize(nextval("bench_pooled_seq"));
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return null;
+            }
+        };
+        prefetcher = Executors.newCachedThreadPool();
+        allocator = new IdBlockAllocator(BLOCK, BLOCK / 2, prefetcher, () -> nextval("bench_block_seq"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nIdBlockAllocator: %,d blocks prefetched, %,d reserved inline%n",
+                allocator.prefetchedBlocks(), allocator.inlineFetches());
+        prefetcher.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public long perRowSequence() {
+        return nextval("bench_row_seq");
+    }
+
+    @Benchmark
+    public Object pooledLoOptimizer() {
+        return pooledLo.generate(pooledLoSource);
+    }
+
+    @Benchmark
+    public long blockAllocator() {
+        return allocator.next(() -> nextval("bench_block_seq"));
+    }
+
+    private long nextval(String sequence) {
+        if (rttMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        }
+        return jdbc.queryForObject("select nextval('" + sequence + "')", Long.class);
+    }
+}
@@ -0,0 +1,86 @@
+package org.company.ecommerce.benchmarks;
+
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// createOrder plus the changeStatus/cancelOrder transitions against H2 in PostgreSQL mode.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderLifecycleBenchmark {
+
+    private static final int REQUESTS = 256;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        orderService = context.getBean(OrderService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        Random random = BenchmarkData.random();
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Product p = BenchmarkData.product(random);
+            p.setStock(Integer.MAX_VALUE / 2);
+            catalog.add(p);
+        }
+        catalog = productRepository.saveAll(catalog);
+        requests = new CreateOrderRequest[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = BenchmarkData.orderRequest(catalog, 5, random);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderStatus createConfirmShipDeliver() {
+        Long id = orderService.createOrder(nextRequest()).getId();
+        orderService.changeStatus(id, OrderStatus.CONFIRMED);
+        orderService.changeStatus(id, OrderStatus.SHIPPED);
+        return orderService.changeStatus(id, OrderStatus.DELIVERED).getStatus();
+    }
+
+    @Benchmark
+    public Long createConfirmCancel() {
+        Long id = orderService.createOrder(nextRequest()).getId();
+        orderService.changeStatus(id, OrderStatus.CONFIRMED);
+        orderService.cancelOrder(id);
+        return id;
+    }
+
+    private CreateOrderRequest nextRequest() {
+        return requests[next++ & (REQUESTS - 1)];
+    }
+}
@@ -0,0 +1,90 @@
+package org.company.ecommerce.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.OrderField;
+import org.company.ecommerce.dto.OrderJsonWriter;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.BulkOrderService;
+import org.company.ecommerce.services.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// One 100-order listing page rendered to JSON: SQL projections streamed through JsonGenerator,
+// with and without items. Run with -prof gc and compare gc.alloc.rate.norm (bytes per page;
+// divide by 100 for per order).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderListingBenchmark {
+
+    private static final int PAGE = 100;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        orderService = context.getBean(OrderService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        Random random = BenchmarkData.random();
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            catalog.add(BenchmarkData.product(random));
+        }
+        catalog = context.getBean(ProductRepository.class).saveAll(catalog);
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < PAGE; i++) {
+            requests.add(BenchmarkData.orderRequest(catalog, 5, random));
+        }
+        context.getBean(BulkOrderService.class).createOrders(requests);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void projection() throws IOException {
+        stream(EnumSet.allOf(OrderField.class));
+    }
+
+    @Benchmark
+    public void projectionSummary() throws IOException {
+        stream(OrderField.select(null, true));
+    }
+
+    private void stream(Set<OrderField> fields) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            OrderJsonWriter.writePage(json, orderService.listRows(null, PAGE, fields.contains(OrderField.ITEMS)), fields);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.company.ecommerce.benchmarks;
+
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.OrderMapper;
+import org.company.ecommerce.dto.OrderResponse;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.services.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// createOrder pricing (validation, line merging, BigDecimal totals) and OrderController's
+// entity-to-response mapping, both without any database access.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    private static final int REQUESTS = 256;
+
+    @Param({"5", "50"})
+    public int lines;
+
+    private final OrderService orderService = new OrderService();
+    private Map<Long, Product> products;
+    private CreateOrderRequest[] requests;
+    private Order[] orders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        List<Product> catalog = BenchmarkData.detachedProducts(1_000, random);
+        products = catalog.stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        requests = new CreateOrderRequest[REQUESTS];
+        orders = new Order[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = BenchmarkData.orderRequest(catalog, lines, random);
+            orders[i] = orderService.buildOrder(requests[i], products);
+            orders[i].setId((long) i + 1);
+        }
+    }
+
+    @Benchmark
+    public Order priceOrder() {
+        return orderService.buildOrder(requests[next++ & (REQUESTS - 1)], products);
+    }
+
+    @Benchmark
+    public OrderResponse mapOrderResponse() {
+        return OrderMapper.toResponse(orders[next++ & (REQUESTS - 1)]);
+    }
+}
@@ -0,0 +1,92 @@
+package org.company.ecommerce.benchmarks;
+
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ProductService.search against H2 in PostgreSQL mode; H2 has no trigram index, so name
+// searches here track query and mapping overhead rather than PostgreSQL index behaviour.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int TERMS = 256;
+
+    @Param({"20000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private String[] terms;
+    private String[] categories;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        productService = context.getBean(ProductService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        Random random = BenchmarkData.random();
+        List<Product> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < products; i++) {
+            batch.add(BenchmarkData.product(random));
+            if (batch.size() == 1_000) {
+                productRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        productRepository.saveAll(batch);
+
+        terms = new String[TERMS];
+        categories = new String[TERMS];
+        for (int i = 0; i < TERMS; i++) {
+            terms[i] = BenchmarkData.searchTerm(random);
+            categories[i] = BenchmarkData.category(random);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> searchByName() {
+        return productService.search(terms[next++ & (TERMS - 1)], null, 0, 10);
+    }
+
+    @Benchmark
+    public Page<Product> searchByCategory() {
+        return productService.search(null, categories[next++ & (TERMS - 1)], 0, 10);
+    }
+
+    @Benchmark
+    public Page<Product> searchByNameAndCategory() {
+        int i = next++ & (TERMS - 1);
+        return productService.search(terms[i], categories[i], 0, 10);
+    }
+}
@@ -0,0 +1,45 @@
+package org.company.ecommerce.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Holds a bulkhead permit for the synchronous part of an API call. Streaming responses give
+// the permit back as soon as the handler returns; the async dispatch that follows is not gated.
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final DatabaseBulkhead bulkhead;
+
+    public BulkheadInterceptor(DatabaseBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            bulkhead.acquire();
+            request.setAttribute(PERMIT, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT) != null) {
+            request.removeAttribute(PERMIT);
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.company.ecommerce.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback's bounded async appender, configured lossy in logback-spring.xml, that counts what
+ * it throws away. Once less than {@code discardingThreshold} slots are free, INFO and below
+ * are discarded; with {@code neverBlock} a full queue drops WARN and ERROR too instead of
+ * stalling the request thread.
+ */
+public class CountingAsyncAppender extends AsyncAppender implements MeterBinder {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discard = super.isDiscardable(event);
+        if (discard) {
+            discarded.increment();
+        }
+        return discard;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // approximate: another thread can take the last slot between this check and the offer
+        if (isNeverBlock() && getRemainingCapacity() == 0 && event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            overflowed.increment();
+        }
+        super.append(event);
+    }
+
+    public long dropped() {
+        return discarded.sum() + overflowed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.events.dropped", discarded, LongAdder::sum)
+                .description("Log events thrown away by the async appender")
+                .tag("appender", getName())
+                .tag("reason", "discarded")
+                .register(registry);
+        FunctionCounter.builder("logging.events.dropped", overflowed, LongAdder::sum)
+                .tag("appender", getName())
+                .tag("reason", "overflow")
+                .register(registry);
+        Gauge.builder("logging.queue.depth", this, CountingAsyncAppender::getNumberOfElementsInQueue)
+                .tag("appender", getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,100 @@
+package org.company.ecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.company.ecommerce.exceptions.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many API requests work against the database at once. With virtual threads the
+ * servlet container no longer limits concurrency, so without this every request would queue
+ * inside Hikari and time out after {@code connection-timeout}; here they wait a bounded time
+ * in a fair queue and are rejected with 503 once {@code db.bulkhead.max-wait} has passed.
+ */
+@Component
+public class DatabaseBulkhead {
+
+    @Value("${db.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int maxConcurrent;
+
+    @Value("${db.bulkhead.max-wait:2s}")
+    private Duration maxWait;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    // moving average of permit wait time, weight 1/8 per sample
+    private final AtomicLong queueLatencyNanos = new AtomicLong();
+    private Timer waitTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        waitTimer = Timer.builder("db.bulkhead.wait")
+                .description("Time spent waiting for a database bulkhead permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejected = meterRegistry.counter("db.bulkhead.rejected");
+        Gauge.builder("db.bulkhead.active", this, b -> b.maxConcurrent - b.permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("db.bulkhead.waiting", waiting, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("db.bulkhead.queue.latency", this, b -> b.queueLatency().toNanos() / 1e9)
+                .description("Moving average of bulkhead wait while requests are queued")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void acquire() {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+            long waited = System.nanoTime() - start;
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+            queueLatencyNanos.getAndUpdate(avg -> avg + ((waited - avg) >> 3));
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(maxWait);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    // Only meaningful while something is queued: once the queue drains no new samples arrive,
+    // so an idle bulkhead reports zero rather than the last average.
+    public Duration queueLatency() {
+        return waiting.get() == 0 ? Duration.ZERO : Duration.ofNanos(queueLatencyNanos.get());
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,45 @@
+package org.company.ecommerce.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.company.ecommerce.metrics.StatementCountFilter;
+import org.company.ecommerce.metrics.StatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    // logback is configured before the context exists; its components are bound here
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+            for (TurboFilter filter : context.getTurboFilterList()) {
+                if (filter instanceof MeterBinder binder) binder.bindTo(registry);
+            }
+            context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders().forEachRemaining(appender -> {
+                if (appender instanceof MeterBinder binder) binder.bindTo(registry);
+            });
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry registry) {
+        FilterRegistrationBean<StatementCountFilter> bean = new FilterRegistrationBean<>(new StatementCountFilter(registry));
+        bean.addUrlPatterns("/api/*");
+        return bean;
+    }
+}
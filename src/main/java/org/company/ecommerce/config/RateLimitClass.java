@@ -0,0 +1,31 @@
+package org.company.ecommerce.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Endpoint groups with their own per-client budget; requests outside them are not limited.
+public enum RateLimitClass {
+    CATALOG_READ("catalog-read"),
+    ORDER_WRITE("order-write");
+
+    private final String key;
+
+    RateLimitClass(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static RateLimitClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = "GET".equals(request.getMethod());
+        if (read && path.startsWith("/api/products")) {
+            return CATALOG_READ;
+        }
+        if (!read && path.startsWith("/api/orders")) {
+            return ORDER_WRITE;
+        }
+        return null;
+    }
+}
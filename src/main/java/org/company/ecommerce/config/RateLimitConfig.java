@@ -0,0 +1,24 @@
+package org.company.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // ahead of the bulkhead, so rejected requests never queue for a database slot
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
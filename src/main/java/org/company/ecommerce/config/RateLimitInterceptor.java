@@ -0,0 +1,29 @@
+package org.company.ecommerce.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Clients are told apart by remote address. Nothing here verifies API keys, so a key header
+// cannot be trusted to name a client: rotating it would hand out a fresh bucket per request.
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        RateLimitClass limitClass = RateLimitClass.of(request);
+        if (limitClass != null) {
+            rateLimiter.admit(limitClass, request.getRemoteAddr());
+        }
+        return true;
+    }
+}
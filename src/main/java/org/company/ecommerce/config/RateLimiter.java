@@ -0,0 +1,106 @@
+package org.company.ecommerce.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.company.ecommerce.exceptions.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control in front of the controllers: one token bucket per client and
+ * {@link RateLimitClass}, plus load shedding once requests queue on the database bulkhead
+ * for longer than {@code ratelimit.shed.queue-latency}. Rejections carry the time after
+ * which a retry can succeed.
+ */
+@Component
+public class RateLimiter {
+
+    @Value("${ratelimit.catalog-read.per-second:50}")
+    private double catalogReadRate;
+
+    @Value("${ratelimit.catalog-read.burst:100}")
+    private int catalogReadBurst;
+
+    @Value("${ratelimit.order-write.per-second:10}")
+    private double orderWriteRate;
+
+    @Value("${ratelimit.order-write.burst:20}")
+    private int orderWriteBurst;
+
+    @Value("${ratelimit.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${ratelimit.shed.queue-latency:250ms}")
+    private Duration shedLatency;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<RateLimitClass, Budget> budgets = new EnumMap<>(RateLimitClass.class);
+
+    @PostConstruct
+    void init() {
+        budgets.put(RateLimitClass.CATALOG_READ, new Budget(RateLimitClass.CATALOG_READ, catalogReadRate, catalogReadBurst));
+        budgets.put(RateLimitClass.ORDER_WRITE, new Budget(RateLimitClass.ORDER_WRITE, orderWriteRate, orderWriteBurst));
+    }
+
+    public void admit(RateLimitClass limitClass, String client) {
+        Budget budget = budgets.get(limitClass);
+        Duration queued = databaseBulkhead.queueLatency();
+        if (queued.compareTo(shedLatency) > 0) {
+            budget.shed.increment();
+            // by then the queue ahead of this request should have drained
+            throw new RateLimitExceededException("Server is shedding load, requests are queuing for "
+                    + queued.toMillis() + " ms", queued);
+        }
+        long now = System.nanoTime();
+        long wait = budget.buckets.get(client, c -> new TokenBucket(now))
+                .tryAcquire(now, budget.intervalNanos, budget.toleranceNanos);
+        if (wait > 0) {
+            budget.limited.increment();
+            throw new RateLimitExceededException("Rate limit exceeded for " + limitClass.key(), Duration.ofNanos(wait));
+        }
+        budget.allowed.increment();
+    }
+
+    private final class Budget {
+        final long intervalNanos;
+        final long toleranceNanos;
+        // idle clients age out, so one-off callers do not accumulate
+        final Cache<String, TokenBucket> buckets;
+        final Counter allowed;
+        final Counter limited;
+        final Counter shed;
+
+        Budget(RateLimitClass limitClass, double perSecond, int burst) {
+            intervalNanos = (long) (1_000_000_000L / perSecond);
+            toleranceNanos = intervalNanos * burst;
+            buckets = Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    .expireAfterAccess(Duration.ofNanos(toleranceNanos).plusSeconds(1))
+                    .build();
+            allowed = decisions(limitClass, "allowed");
+            limited = decisions(limitClass, "limited");
+            shed = decisions(limitClass, "shed");
+        }
+
+        private Counter decisions(RateLimitClass limitClass, String outcome) {
+            return Counter.builder("ratelimit.decisions")
+                    .description("Admission decisions per endpoint class")
+                    .tag("class", limitClass.key())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.company.ecommerce.config;
+
+// Marks the current thread as having used the primary for a write, so later read-only
+// transactions of the same request are not sent to a replica that may not have the write yet.
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean pinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,24 @@
+package org.company.ecommerce.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Scopes the primary pin to one request; pooled and virtual threads start every request unpinned.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.clear();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.company.ecommerce.config;
+
+import org.company.ecommerce.config.ReplicaRoutingDataSource.Replica;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+// Polls every replica with the lag query; a replica that fails to answer or is further
+// behind than datasource.replicas.max-lag stops receiving reads until it catches up.
+public class ReplicaHealthMonitor {
+
+    private final ReplicaRoutingDataSource routing;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    public ReplicaHealthMonitor(ReplicaRoutingDataSource routing, String lagQuery, Duration maxLag) {
+        this.routing = routing;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval-ms:1000}")
+    public void check() {
+        for (Replica replica : routing.replicas()) {
+            try {
+                Double lag = new JdbcTemplate(replica.dataSource()).queryForObject(lagQuery, Double.class);
+                double seconds = lag == null ? 0 : lag;
+                replica.checked(seconds, seconds <= maxLagSeconds);
+            } catch (DataAccessException ex) {
+                replica.markDown(ex.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.company.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.company.ecommerce.config.ReplicaRoutingDataSource.Replica;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool (still bound from
+ * {@code spring.datasource.*}), one pool per {@code datasource.replicas.urls} entry, and a
+ * routing data source in front of them that JPA, JdbcTemplate and the SQL initializer all use.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties properties,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${datasource.replicas.urls}") List<String> urls,
+                                                      @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                                      @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                                      @Value("${datasource.replicas.pool-size:10}") int poolSize,
+                                                      @Value("${datasource.replicas.connection-timeout:1s}") Duration connectionTimeout) {
+        List<Replica> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i).trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            pool.setPoolName("replica-" + i);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setReadOnly(true);
+            // a replica that is down at startup must not keep the application from starting
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(pool.getPoolName(), pool));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(ReplicaRoutingDataSource routingDataSource,
+                                                     @Value("${datasource.replicas.lag-query}") String lagQuery,
+                                                     @Value("${datasource.replicas.max-lag:5s}") Duration maxLag) {
+        return new ReplicaHealthMonitor(routingDataSource, lagQuery, maxLag);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> bean = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        bean.addUrlPatterns("/api/*");
+        return bean;
+    }
+}
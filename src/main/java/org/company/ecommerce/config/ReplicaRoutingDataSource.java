@@ -0,0 +1,180 @@
+package org.company.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round robin, and
+ * everything else to the primary. A replica is only used once {@link ReplicaHealthMonitor}
+ * has seen it answer within the lag budget; if none qualifies, or the chosen one refuses a
+ * connection, the read falls back to the primary.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager asks for
+ * a connection before it publishes the read-only flag, and the proxy defers the choice to
+ * the first statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Map<String, Replica> byName = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter pinnedReads;
+    private final Counter replicaReads;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<Replica> replicas, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            byName.put(replica.name(), replica);
+            targets.put(replica.name(), replica.dataSource());
+            Gauge.builder("db.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag seen by the last health check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name())
+                    .register(registry);
+            Gauge.builder("db.replica.available", replica, r -> r.available ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(registry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        writes = routed(registry, PRIMARY, "write");
+        pinnedReads = routed(registry, PRIMARY, "pinned");
+        replicaReads = routed(registry, "replica", "read");
+        fallbacks = routed(registry, PRIMARY, "fallback");
+    }
+
+    private static Counter routed(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("db.routing")
+                .description("Connections handed out by the routing data source")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWrites.pin();
+            writes.increment();
+            return PRIMARY;
+        }
+        if (ReadYourWrites.pinned()) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        Replica replica = pick();
+        return replica == null ? PRIMARY : replica.name();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        Replica replica = byName.get(key);
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource().getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException ex) {
+            // taken out of rotation until the next health check sees it answer again
+            replica.markDown(ex.getMessage());
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private Replica pick() {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.available) {
+                return candidate;
+            }
+        }
+        fallbacks.increment();
+        return null;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(r -> r.dataSource().close());
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        // out of rotation until the first check has passed
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        HikariDataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean available() {
+            return available;
+        }
+
+        void checked(double lag, boolean withinBudget) {
+            lagSeconds = lag;
+            if (available != withinBudget) {
+                if (withinBudget) {
+                    log.info("Replica {} back in rotation (lag {}s)", name, lag);
+                } else {
+                    log.warn("Replica {} taken out of rotation: lag {}s", name, lag);
+                }
+            }
+            available = withinBudget;
+        }
+
+        void markDown(String reason) {
+            lagSeconds = Double.NaN;
+            if (available) {
+                log.warn("Replica {} taken out of rotation: {}", name, reason);
+            }
+            available = false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.company.ecommerce.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps Hibernate's slow-query log ({@code hibernate.log_slow_query}) at {@code maxPerSecond}
+ * lines with a short burst allowance, so a database slowdown does not turn into a logging
+ * storm on top. Every slow statement is still counted.
+ */
+public class SlowQuerySampler extends TurboFilter implements MeterBinder {
+
+    static final String SLOW_QUERY_LOGGER = "org.hibernate.SQL_SLOW";
+    private static final long SECOND = 1_000_000_000L;
+
+    private int maxPerSecond = 10;
+    private TokenBucket bucket;
+    private long intervalNanos;
+
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        intervalNanos = SECOND / Math.max(1, maxPerSecond);
+        bucket = new TokenBucket(System.nanoTime());
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must not use up a token
+        if (format == null || !SLOW_QUERY_LOGGER.equals(logger.getName())
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (bucket.tryAcquire(System.nanoTime(), intervalNanos, SECOND) == 0) {
+            logged.increment();
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("db.query.slow", logged, LongAdder::sum)
+                .description("Statements over hibernate.log_slow_query")
+                .tag("outcome", "logged")
+                .register(registry);
+        FunctionCounter.builder("db.query.slow", suppressed, LongAdder::sum)
+                .tag("outcome", "sampled_out")
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package org.company.ecommerce.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in its GCRA form: the whole state is the "theoretical arrival time" of the next
+ * request, so admitting one is a single CAS with no lock and no allocation. A bucket of
+ * {@code burst} tokens refilled one per {@code interval} admits a request as long as that time
+ * is no more than {@code burst * interval} ahead of now.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        theoreticalArrival = new AtomicLong(now);
+    }
+
+    // 0 if admitted, otherwise nanoseconds until a token is available
+    long tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.company.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "db.bulkhead.enabled", havingValue = "true")
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(databaseBulkhead)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,51 @@
+package org.company.ecommerce.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Strong validators built from entity versions rather than from hashing a rendered body, so
+// a conditional GET can be answered before anything is loaded or serialized.
+final class ConditionalRequests {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private ConditionalRequests() {
+    }
+
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // whether If-None-Match lists this tag (or "*"); weak tags compare by their opaque part
+    static boolean ifNoneMatch(WebRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (header == null) {
+            return false;
+        }
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    static String etag(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    // microseconds, the precision the timestamp columns keep
+    static long version(LocalDateTime modified) {
+        return modified == null ? 0 : ChronoUnit.MICROS.between(EPOCH, modified);
+    }
+
+    // -1 leaves Last-Modified out
+    static long lastModified(LocalDateTime modified) {
+        return modified == null ? -1 : modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
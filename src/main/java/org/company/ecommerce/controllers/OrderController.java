@@ -1,18 +1,38 @@
 package org.company.ecommerce.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import org.company.ecommerce.dto.*;
+import org.company.ecommerce.exceptions.BulkOrderLimitExceededException;
 import org.company.ecommerce.models.Order;
-import org.company.ecommerce.models.OrderItem;
 import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.services.BulkOrderService;
+import org.company.ecommerce.services.IdempotencyService;
 import org.company.ecommerce.services.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.company.ecommerce.controllers.ConditionalRequests.etag;
+import static org.company.ecommerce.controllers.ConditionalRequests.ifNoneMatch;
+import static org.company.ecommerce.controllers.ConditionalRequests.isConditional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -21,20 +41,91 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.bulk.max-size:5000}")
+    private int maxBulkSize;
+
+    // GET /api/orders?size=20&cursor=...[&fields=id,status,totalAmount][&summary=true]
     @GetMapping
-    public List<OrderResponse> all() {
-        return orderService.listAll().stream().map(this::toResponse).collect(Collectors.toList());
+    public void all(@RequestParam(required = false) String cursor,
+                    @RequestParam(required = false) Integer size,
+                    @RequestParam(required = false) String fields,
+                    @RequestParam(defaultValue = "false") boolean summary,
+                    HttpServletResponse response) throws IOException {
+        Set<OrderField> selected = OrderField.select(fields, summary);
+        writePage(orderService.listRows(cursor, size, selected.contains(OrderField.ITEMS)), selected, response);
     }
 
+    // A conditional GET is first compared with the version column, and the order and its items
+    // are only loaded when the client's copy is out of date. The ETag is set once, from the
+    // version answered with: the one matched for a 304, otherwise the one of the order rendered.
     @GetMapping("/{id}")
-    public OrderResponse get(@PathVariable Long id) {
-        return toResponse(orderService.getOrder(id));
+    public OrderResponse get(@PathVariable Long id, WebRequest request) {
+        if (isConditional(request)) {
+            Optional<String> current = orderService.versionTag(id).map(version -> etag("order", id, version));
+            if (current.isPresent() && ifNoneMatch(request, current.get())) {
+                request.checkNotModified(current.get());
+                return null;
+            }
+        }
+        Order order = orderService.getOrder(id);
+        if (request.checkNotModified(etag("order", id, OrderService.versionTag(order)))) {
+            return null;
+        }
+        return toResponse(order);
     }
 
+    // a retry with the same Idempotency-Key gets the original response instead of a new order
     @PostMapping
-    public ResponseEntity<OrderResponse> create(@Valid @RequestBody CreateOrderRequest req) {
-        Order order = orderService.createOrder(req);
-        return ResponseEntity.created(URI.create("/api/orders/" + order.getId())).body(toResponse(order));
+    public ResponseEntity<OrderResponse> create(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                @Valid @RequestBody CreateOrderRequest req) {
+        OrderResponse body = idempotencyKey == null
+                ? toResponse(orderService.createOrder(req))
+                : idempotencyService.execute(idempotencyKey, req, () -> toResponse(orderService.createOrder(req)));
+        return ResponseEntity.created(URI.create("/api/orders/" + body.getId())).body(body);
+    }
+
+    // POST /api/orders/bulk with a JSON array of orders; results are reported per index.
+    // Elements are read one at a time, so an oversized array is rejected at the first order past the limit.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BulkOrderResult> createBulk(InputStream body) throws IOException {
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, List.class, "Expected a JSON array of orders");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (requests.size() == maxBulkSize) {
+                    throw new BulkOrderLimitExceededException(maxBulkSize);
+                }
+                requests.add(objectMapper.readValue(parser, CreateOrderRequest.class));
+            }
+        }
+        return bulkOrderService.createOrders(requests);
+    }
+
+    // lines are read one at a time and the body is rejected at the first line past the limit,
+    // so an oversized stream is never buffered in full
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public List<BulkOrderResult> createBulkNdjson(InputStream body) throws IOException {
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        try (MappingIterator<CreateOrderRequest> lines = objectMapper.readerFor(CreateOrderRequest.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (requests.size() == maxBulkSize) {
+                    throw new BulkOrderLimitExceededException(maxBulkSize);
+                }
+                requests.add(lines.nextValue());
+            }
+        }
+        return bulkOrderService.createOrders(requests);
     }
 
     @PutMapping("/{id}/status")
@@ -49,31 +140,26 @@ public class OrderController {
     }
 
     @GetMapping("/customer/{email}")
-    public List<OrderResponse> byCustomer(@PathVariable String email) {
-        return orderService.findByCustomerEmail(email).stream().map(this::toResponse).collect(Collectors.toList());
+    public void byCustomer(@PathVariable String email,
+                           @RequestParam(required = false) String cursor,
+                           @RequestParam(required = false) Integer size,
+                           @RequestParam(required = false) String fields,
+                           @RequestParam(defaultValue = "false") boolean summary,
+                           HttpServletResponse response) throws IOException {
+        Set<OrderField> selected = OrderField.select(fields, summary);
+        OrderRowPage page = orderService.findRowsByCustomerEmail(email, cursor, size, selected.contains(OrderField.ITEMS));
+        writePage(page, selected, response);
     }
 
-    private OrderResponse toResponse(Order o) {
-        OrderResponse r = new OrderResponse();
-        r.setId(o.getId());
-        r.setCustomerName(o.getCustomerName());
-        r.setCustomerEmail(o.getCustomerEmail());
-        r.setOrderDate(o.getOrderDate());
-        r.setStatus(o.getStatus().name());
-        r.setTotalAmount(o.getTotalAmount());
-        List<OrderItemResponse> items = o.getOrderItems().stream().map(this::toItemResponse).collect(Collectors.toList());
-        r.setItems(items);
-        return r;
+    // listings skip the OrderResponse graph and stream projections straight into the response
+    private void writePage(OrderRowPage page, Set<OrderField> fields, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            OrderJsonWriter.writePage(json, page, fields);
+        }
     }
 
-    private OrderItemResponse toItemResponse(OrderItem oi) {
-        OrderItemResponse ir = new OrderItemResponse();
-        ir.setId(oi.getId());
-        ir.setProductId(oi.getProduct().getId());
-        ir.setProductName(oi.getProduct().getName());
-        ir.setQuantity(oi.getQuantity());
-        ir.setUnitPrice(oi.getUnitPrice());
-        ir.setTotalPrice(oi.getTotalPrice());
-        return ir;
+    private OrderResponse toResponse(Order o) {
+        return OrderMapper.toResponse(o);
     }
 }
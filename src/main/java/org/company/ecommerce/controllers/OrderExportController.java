@@ -0,0 +1,54 @@
+package org.company.ecommerce.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.company.ecommerce.dto.OrderMapper;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.services.OrderExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/orders/export")
+public class OrderExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // GET /api/orders/export?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&status=DELIVERED
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) OrderStatus status) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            orderExportService.export(from, to, status, chunk -> {
+                for (Order o : chunk) {
+                    json.writeObject(OrderMapper.toResponse(o));
+                    json.writeRaw('\n');
+                }
+                json.flush();
+            });
+            json.close();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -2,16 +2,25 @@ package org.company.ecommerce.controllers;
 
 import org.company.ecommerce.dto.ProductResponse;
 import org.company.ecommerce.models.Product;
+import org.company.ecommerce.models.ProductSnapshot;
 import org.company.ecommerce.services.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.company.ecommerce.controllers.ConditionalRequests.etag;
+import static org.company.ecommerce.controllers.ConditionalRequests.lastModified;
+import static org.company.ecommerce.controllers.ConditionalRequests.version;
+
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
@@ -19,17 +28,34 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
-    // GET /api/products?page=0&size=10
+    // GET /api/products?page=0&size=10; validated against the page itself: the catalog size,
+    // the products on the page and the newest change among them, so no extra query is needed
     @GetMapping
     public Page<ProductResponse> list(@RequestParam(defaultValue = "0") int page,
-                                      @RequestParam(defaultValue = "10") int size) {
+                                      @RequestParam(defaultValue = "10") int size,
+                                      WebRequest request) {
         Page<Product> p = productService.listAll(page, size);
+        List<Long> ids = p.map(Product::getId).getContent();
+        LocalDateTime modified = p.stream()
+                .map(product -> product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt())
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        String etag = etag("products", page, size, p.getTotalElements(), Integer.toHexString(ids.hashCode()), version(modified));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         return p.map(this::toResponse);
     }
 
+    // the snapshot usually comes from the product cache, so a 304 costs no query
     @GetMapping("/{id}")
-    public ProductResponse get(@PathVariable Long id) {
-        return toResponse(productService.get(id));
+    public ProductResponse get(@PathVariable Long id, WebRequest request) {
+        ProductSnapshot p = productService.get(id);
+        LocalDateTime modified = p.updatedAt() != null ? p.updatedAt() : p.createdAt();
+        if (request.checkNotModified(etag("product", id, version(modified)), lastModified(modified))) {
+            return null;
+        }
+        return toResponse(p);
     }
 
     @PostMapping
@@ -68,4 +94,16 @@ public class ProductController {
         r.setCreatedAt(p.getCreatedAt());
         return r;
     }
+
+    private ProductResponse toResponse(ProductSnapshot p) {
+        ProductResponse r = new ProductResponse();
+        r.setId(p.id());
+        r.setName(p.name());
+        r.setPrice(p.price());
+        r.setStock(p.stock());
+        r.setCategory(p.category());
+        r.setIsActive(p.isActive());
+        r.setCreatedAt(p.createdAt());
+        return r;
+    }
 }
@@ -0,0 +1,45 @@
+package org.company.ecommerce.controllers;
+
+import org.company.ecommerce.dto.CategorySalesReport;
+import org.company.ecommerce.dto.DailyRevenueReport;
+import org.company.ecommerce.dto.LowStockProduct;
+import org.company.ecommerce.dto.ProductSalesReport;
+import org.company.ecommerce.services.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    // GET /api/reports/revenue/daily?from=2024-01-01&to=2024-01-31
+    @GetMapping("/revenue/daily")
+    public List<DailyRevenueReport> dailyRevenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.dailyRevenue(from, to);
+    }
+
+    @GetMapping("/sales/categories")
+    public List<CategorySalesReport> categorySales(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.categorySales(from, to);
+    }
+
+    @GetMapping("/sales/products")
+    public List<ProductSalesReport> topProducts(@RequestParam(defaultValue = "20") int limit) {
+        return reportService.topProducts(limit);
+    }
+
+    @GetMapping("/inventory/low-stock")
+    public List<LowStockProduct> lowStock(@RequestParam(defaultValue = "10") int threshold,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        return reportService.lowStock(threshold, limit);
+    }
+}
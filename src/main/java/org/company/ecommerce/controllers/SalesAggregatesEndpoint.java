@@ -0,0 +1,24 @@
+package org.company.ecommerce.controllers;
+
+import org.company.ecommerce.services.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// POST /actuator/salesaggregates recomputes every report aggregate from orders. It is an
+// operator command: it is only reachable once listed in
+// management.endpoints.web.exposure.include, which should then be served on a separate
+// management.server.port.
+@Component
+@Endpoint(id = "salesaggregates")
+public class SalesAggregatesEndpoint {
+
+    @Autowired
+    private ReportService reportService;
+
+    @WriteOperation
+    public void rebuild() {
+        reportService.rebuild();
+    }
+}
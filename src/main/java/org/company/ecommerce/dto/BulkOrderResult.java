@@ -0,0 +1,31 @@
+package org.company.ecommerce.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class BulkOrderResult {
+    private int index;
+    private String status;
+    private Long orderId;
+    private BigDecimal totalAmount;
+    private String error;
+
+    public static BulkOrderResult created(int index, Long orderId, BigDecimal totalAmount) {
+        BulkOrderResult r = new BulkOrderResult();
+        r.setIndex(index);
+        r.setStatus("CREATED");
+        r.setOrderId(orderId);
+        r.setTotalAmount(totalAmount);
+        return r;
+    }
+
+    public static BulkOrderResult failed(int index, String error) {
+        BulkOrderResult r = new BulkOrderResult();
+        r.setIndex(index);
+        r.setStatus("FAILED");
+        r.setError(error);
+        return r;
+    }
+}
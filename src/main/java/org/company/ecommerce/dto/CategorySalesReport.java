@@ -0,0 +1,6 @@
+package org.company.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record CategorySalesReport(String category, Long unitsSold, BigDecimal revenue) {
+}
@@ -1,5 +1,6 @@
 package org.company.ecommerce.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -18,6 +19,7 @@ public class CreateOrderRequest {
     private String customerEmail;
 
     @NotNull
+    @Valid
     private List<OrderItemRequest> items;
 
     @Data
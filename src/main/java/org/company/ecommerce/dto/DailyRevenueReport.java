@@ -0,0 +1,9 @@
+package org.company.ecommerce.dto;
+
+import org.company.ecommerce.models.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRevenueReport(LocalDate date, OrderStatus status, Long orderCount, BigDecimal revenue) {
+}
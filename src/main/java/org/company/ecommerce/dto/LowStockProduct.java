@@ -0,0 +1,4 @@
+package org.company.ecommerce.dto;
+
+public record LowStockProduct(Long id, String name, String category, Integer stock) {
+}
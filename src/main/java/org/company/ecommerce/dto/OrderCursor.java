@@ -0,0 +1,36 @@
+package org.company.ecommerce.dto;
+
+import org.company.ecommerce.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque continuation token over the (orderDate, id) keyset used by order listings.
+public record OrderCursor(LocalDateTime orderDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor of(OrderRow order) {
+        return new OrderCursor(order.orderDate(), order.id());
+    }
+
+    public String encode() {
+        String raw = orderDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
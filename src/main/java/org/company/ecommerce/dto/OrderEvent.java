@@ -0,0 +1,15 @@
+package org.company.ecommerce.dto;
+
+import org.company.ecommerce.models.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+// seq grows with every change of the same order, so consumers can drop redeliveries whose
+// (orderId, seq) they have already applied; eventId only identifies the event
+public record OrderEvent(Long eventId, Long orderId, Long seq, String fromStatus, String toStatus, LocalDateTime occurredAt) {
+
+    public static OrderEvent of(OutboxEvent e) {
+        return new OrderEvent(e.getId(), e.getOrderId(), e.getSeq(), e.getFromStatus().name(), e.getToStatus().name(),
+                e.getOccurredAt());
+    }
+}
@@ -0,0 +1,57 @@
+package org.company.ecommerce.dto;
+
+import org.company.ecommerce.exceptions.InvalidFieldSetException;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Properties of an order listing entry that a client can select with fields=.
+public enum OrderField {
+    ID("id"),
+    CUSTOMER_NAME("customerName"),
+    CUSTOMER_EMAIL("customerEmail"),
+    ORDER_DATE("orderDate"),
+    STATUS("status"),
+    TOTAL_AMOUNT("totalAmount"),
+    ITEMS("items");
+
+    private final String jsonName;
+
+    OrderField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma separated sparse fieldset such as {@code id,status,totalAmount}.
+     * No fieldset means every field; summary drops the items either way.
+     */
+    public static Set<OrderField> select(String fields, boolean summary) {
+        Set<OrderField> selected;
+        if (!StringUtils.hasText(fields)) {
+            selected = EnumSet.allOf(OrderField.class);
+        } else {
+            selected = EnumSet.noneOf(OrderField.class);
+            for (String name : StringUtils.commaDelimitedListToStringArray(fields)) {
+                selected.add(byJsonName(name.trim()));
+            }
+        }
+        if (summary) {
+            selected.remove(ITEMS);
+        }
+        return selected;
+    }
+
+    private static OrderField byJsonName(String name) {
+        for (OrderField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldSetException(name);
+    }
+}
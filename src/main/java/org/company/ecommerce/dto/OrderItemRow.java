@@ -0,0 +1,7 @@
+package org.company.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record OrderItemRow(Long orderId, Long id, Long productId, String productName, Integer quantity,
+                           BigDecimal unitPrice, BigDecimal totalPrice) {
+}
@@ -0,0 +1,58 @@
+package org.company.ecommerce.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Writes listing pages token by token as {@code {"items": [...], "nextCursor": ...}}, each
+ * item shaped like {@link OrderResponse}, without building the response object graph first.
+ */
+public final class OrderJsonWriter {
+
+    private OrderJsonWriter() {
+    }
+
+    public static void writePage(JsonGenerator json, OrderRowPage page, Set<OrderField> fields) throws IOException {
+        json.writeStartObject();
+        json.writeArrayFieldStart("items");
+        for (OrderRow order : page.orders()) {
+            writeOrder(json, order, page, fields);
+        }
+        json.writeEndArray();
+        json.writeStringField("nextCursor", page.nextCursor());
+        json.writeEndObject();
+    }
+
+    private static void writeOrder(JsonGenerator json, OrderRow o, OrderRowPage page, Set<OrderField> fields) throws IOException {
+        json.writeStartObject();
+        if (fields.contains(OrderField.ID)) json.writeNumberField("id", o.id());
+        if (fields.contains(OrderField.CUSTOMER_NAME)) json.writeStringField("customerName", o.customerName());
+        if (fields.contains(OrderField.CUSTOMER_EMAIL)) json.writeStringField("customerEmail", o.customerEmail());
+        // dates go through the configured codec so the format matches the rest of the API
+        if (fields.contains(OrderField.ORDER_DATE)) json.writePOJOField("orderDate", o.orderDate());
+        if (fields.contains(OrderField.STATUS)) json.writeStringField("status", o.status().name());
+        if (fields.contains(OrderField.TOTAL_AMOUNT)) json.writeNumberField("totalAmount", o.totalAmount());
+        if (fields.contains(OrderField.ITEMS)) {
+            json.writeArrayFieldStart("items");
+            for (OrderItemRow item : page.itemsOf(o)) {
+                writeItem(json, item);
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeItem(JsonGenerator json, OrderItemRow i) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", i.id());
+        json.writeNumberField("productId", i.productId());
+        json.writeStringField("productName", i.productName());
+        if (i.quantity() == null) json.writeNullField("quantity");
+        else json.writeNumberField("quantity", i.quantity().intValue());
+        json.writeNumberField("unitPrice", i.unitPrice());
+        json.writeNumberField("totalPrice", i.totalPrice());
+        json.writeEndObject();
+    }
+}
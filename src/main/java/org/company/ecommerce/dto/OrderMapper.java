@@ -0,0 +1,37 @@
+package org.company.ecommerce.dto;
+
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderItem;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class OrderMapper {
+
+    private OrderMapper() {
+    }
+
+    public static OrderResponse toResponse(Order o) {
+        OrderResponse r = new OrderResponse();
+        r.setId(o.getId());
+        r.setCustomerName(o.getCustomerName());
+        r.setCustomerEmail(o.getCustomerEmail());
+        r.setOrderDate(o.getOrderDate());
+        r.setStatus(o.getStatus().name());
+        r.setTotalAmount(o.getTotalAmount());
+        List<OrderItemResponse> items = o.getOrderItems().stream().map(OrderMapper::toItemResponse).collect(Collectors.toList());
+        r.setItems(items);
+        return r;
+    }
+
+    public static OrderItemResponse toItemResponse(OrderItem oi) {
+        OrderItemResponse ir = new OrderItemResponse();
+        ir.setId(oi.getId());
+        ir.setProductId(oi.getProduct().getId());
+        ir.setProductName(oi.getProductName());
+        ir.setQuantity(oi.getQuantity());
+        ir.setUnitPrice(oi.getUnitPrice());
+        ir.setTotalPrice(oi.getTotalPrice());
+        return ir;
+    }
+}
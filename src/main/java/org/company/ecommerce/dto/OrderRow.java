@@ -0,0 +1,11 @@
+package org.company.ecommerce.dto;
+
+import org.company.ecommerce.models.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Order columns read straight from SQL for listings; no entity, no persistence-context entry.
+public record OrderRow(Long id, String customerName, String customerEmail, LocalDateTime orderDate,
+                       OrderStatus status, BigDecimal totalAmount) {
+}
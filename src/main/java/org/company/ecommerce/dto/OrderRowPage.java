@@ -0,0 +1,12 @@
+package org.company.ecommerce.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// One listing page as projections; items is empty when they were not requested.
+public record OrderRowPage(List<OrderRow> orders, Map<Long, List<OrderItemRow>> items, String nextCursor) {
+
+    public List<OrderItemRow> itemsOf(OrderRow order) {
+        return items.getOrDefault(order.id(), List.of());
+    }
+}
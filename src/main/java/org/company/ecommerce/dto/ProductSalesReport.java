@@ -0,0 +1,6 @@
+package org.company.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record ProductSalesReport(Long productId, String name, Long unitsSold, BigDecimal revenue) {
+}
@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class BulkOrderLimitExceededException extends RuntimeException {
+    public BulkOrderLimitExceededException(int limit) {
+        super("Bulk request exceeds the limit of " + limit + " orders");
+    }
+}
@@ -0,0 +1,9 @@
+package org.company.ecommerce.exceptions;
+
+import java.time.Duration;
+
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(Duration waited) {
+        super("Database is busy, no connection slot freed up within " + waited.toMillis() + " ms");
+    }
+}
@@ -1,5 +1,8 @@
 package org.company.ecommerce.exceptions;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,32 +14,94 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<?> handleProductNotFound(ProductNotFoundException ex) {
-        return build(HttpStatus.NOT_FOUND, ex.getMessage());
+        return build(HttpStatus.NOT_FOUND, ex);
     }
 
     @ExceptionHandler(OrderNotFoundException.class)
     public ResponseEntity<?> handleOrderNotFound(OrderNotFoundException ex) {
-        return build(HttpStatus.NOT_FOUND, ex.getMessage());
+        return build(HttpStatus.NOT_FOUND, ex);
     }
 
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<?> handleInsufficientStock(InsufficientStockException ex) {
-        return build(HttpStatus.BAD_REQUEST, ex.getMessage());
+        return build(HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler(InvalidOrderStatusException.class)
     public ResponseEntity<?> handleInvalidStatus(InvalidOrderStatusException ex) {
-        return build(HttpStatus.BAD_REQUEST, ex.getMessage());
+        return build(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(OrderConflictException.class)
+    public ResponseEntity<?> handleOrderConflict(OrderConflictException ex) {
+        return build(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> handleInvalidCursor(InvalidCursorException ex) {
+        return build(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidFieldSetException.class)
+    public ResponseEntity<?> handleInvalidFieldSet(InvalidFieldSetException ex) {
+        return build(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(BulkOrderLimitExceededException.class)
+    public ResponseEntity<?> handleBulkLimit(BulkOrderLimitExceededException ex) {
+        return build(HttpStatus.PAYLOAD_TOO_LARGE, ex);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<?> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return build(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<?> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        return build(HttpStatus.UNPROCESSABLE_ENTITY, ex);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<?> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return build(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(InvalidReportRangeException.class)
+    public ResponseEntity<?> handleInvalidReportRange(InvalidReportRangeException ex) {
+        return build(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<?> handleBulkheadFull(BulkheadFullException ex) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, ex);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<?> handleRateLimit(RateLimitExceededException ex) {
+        // whole seconds, rounded up so an immediate retry is not rejected again
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        ResponseEntity<?> response = build(HttpStatus.TOO_MANY_REQUESTS, ex);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleOther(Exception ex) {
-        return build(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+        return build(HttpStatus.INTERNAL_SERVER_ERROR, ex);
     }
 
-    private ResponseEntity<?> build(HttpStatus status, String message) {
+    private ResponseEntity<?> build(HttpStatus status, Exception ex) {
+        meterRegistry.counter("api.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+        String message = ex.getMessage() == null ? "" : ex.getMessage();
         return ResponseEntity.status(status).body(
                 Map.of(
                         "timestamp", LocalDateTime.now(),
@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with Idempotency-Key " + key + " is still being processed");
+    }
+}
@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String key) {
+        super("Idempotency-Key " + key + " was already used for a different request");
+    }
+}
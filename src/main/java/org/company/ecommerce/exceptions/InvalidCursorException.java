@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Invalid page cursor: " + cursor);
+    }
+}
@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class InvalidFieldSetException extends RuntimeException {
+    public InvalidFieldSetException(String field) {
+        super("Unknown order field: " + field);
+    }
+}
@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class InvalidReportRangeException extends RuntimeException {
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
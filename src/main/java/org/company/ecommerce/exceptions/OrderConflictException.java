@@ -0,0 +1,7 @@
+package org.company.ecommerce.exceptions;
+
+public class OrderConflictException extends RuntimeException {
+    public OrderConflictException(Long orderId, int attempts) {
+        super("Order " + orderId + " was modified concurrently; gave up after " + attempts + " attempts");
+    }
+}
@@ -0,0 +1,95 @@
+package org.company.ecommerce.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sequence generator for the high-volume tables. The sequence, its DDL and the pooled-lo
+ * numbering (a fetched value v owns ids v .. v + increment_size - 1) are the standard
+ * {@link SequenceStyleGenerator}'s; only the hand-out differs. Ids come from a lock-free
+ * {@link IdBlockAllocator} instead of the synchronized optimizer, and the next block is
+ * reserved on a background connection once {@code refill_at} ids are left, so request
+ * threads rarely wait on the sequence.
+ * <p>
+ * Background reservations use their own auto-commit connection from the pool; a block
+ * reserved on a node that then shuts down is simply skipped, as with any sequence cache.
+ */
+public class BlockSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String REFILL_AT_PARAM = "refill_at";
+
+    // shared by every generator; idle threads go away after a minute
+    private static final ExecutorService PREFETCHER = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "id-block-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ConnectionProvider connections;
+    private Dialect dialect;
+    private String nextValSql;
+    private IdBlockAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, parameters, serviceRegistry);
+        if (!getDatabaseStructure().isPhysicalSequence()) {
+            throw new MappingException("BlockSequenceGenerator needs a database sequence, "
+                    + getDatabaseStructure().getPhysicalName() + " would be a table");
+        }
+        connections = serviceRegistry.getService(ConnectionProvider.class);
+        dialect = serviceRegistry.getService(JdbcEnvironment.class).getDialect();
+        int blockSize = getDatabaseStructure().getIncrementSize();
+        int refillAt = ConfigurationHelper.getInt(REFILL_AT_PARAM, parameters, blockSize / 2);
+        allocator = new IdBlockAllocator(blockSize, refillAt, PREFETCHER, this::reserveDetached);
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        super.initialize(context);
+        nextValSql = dialect.getSequenceSupport()
+                .getSequenceNextValString(context.format(getDatabaseStructure().getPhysicalName()));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        // on the session's own connection, so a thread that has to wait never needs a second one
+        return allocator.next(() -> getDatabaseStructure().buildCallback(session).getNextValue().makeValue().longValue());
+    }
+
+    IdBlockAllocator allocator() {
+        return allocator;
+    }
+
+    private long reserveDetached() {
+        try {
+            Connection connection = connections.getConnection();
+            try (PreparedStatement statement = connection.prepareStatement(nextValSql);
+                 ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            } finally {
+                connections.closeConnection(connection);
+            }
+        } catch (SQLException ex) {
+            throw new HibernateException("Could not reserve an id block from " + getDatabaseStructure().getPhysicalName(), ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.company.ecommerce.id;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out ids from blocks reserved on a database sequence. Each value the sequence returns
+ * starts a block of {@code blockSize} ids that no other node can receive, so several
+ * application nodes can share one sequence. Within a block an id costs one
+ * {@code getAndIncrement}; there is no lock on the path.
+ * <p>
+ * When a block is down to {@code refillAt} remaining ids, the thread that takes that id
+ * schedules the next reservation on {@code prefetcher}, so under steady load the following
+ * block is ready before the current one runs out. If it is not (a burst, or the background
+ * fetch failed), the first thread to find the block exhausted reserves the next one with its
+ * own {@code inline} source and the others wait for that single reservation.
+ */
+public final class IdBlockAllocator {
+
+    private final int blockSize;
+    private final int refillAt;
+    private final Executor prefetcher;
+    private final LongSupplier background;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong inlineFetches = new AtomicLong();
+
+    public IdBlockAllocator(int blockSize, int refillAt, Executor prefetcher, LongSupplier background) {
+        if (blockSize < 1 || refillAt < 0 || refillAt >= blockSize) {
+            throw new IllegalArgumentException("Need 0 <= refillAt < blockSize, got " + refillAt + " and " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.refillAt = refillAt;
+        this.prefetcher = prefetcher;
+        this.background = background;
+    }
+
+    public long next(LongSupplier inline) {
+        while (true) {
+            Block block = current.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (block.end - id == refillAt + 1) {
+                    prefetch(block);
+                }
+                return id;
+            }
+            // whoever loses this race just retries on the block the winner installed
+            current.compareAndSet(block, successor(block, inline));
+        }
+    }
+
+    // blocks reserved by the background source and by callers' inline sources
+    public long prefetchedBlocks() {
+        return prefetched.get();
+    }
+
+    public long inlineFetches() {
+        return inlineFetches.get();
+    }
+
+    private void prefetch(Block block) {
+        CompletableFuture<Block> next = new CompletableFuture<>();
+        if (!block.successor.compareAndSet(null, next)) {
+            return;
+        }
+        try {
+            prefetcher.execute(() -> {
+                try {
+                    next.complete(new Block(background.getAsLong(), blockSize));
+                    prefetched.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    forget(block, next, ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            forget(block, next, ex);
+        }
+    }
+
+    private Block successor(Block block, LongSupplier inline) {
+        while (true) {
+            CompletableFuture<Block> next = block.successor.get();
+            if (next == null) {
+                CompletableFuture<Block> mine = new CompletableFuture<>();
+                if (!block.successor.compareAndSet(null, mine)) {
+                    continue;
+                }
+                try {
+                    Block fetched = new Block(inline.getAsLong(), blockSize);
+                    inlineFetches.incrementAndGet();
+                    mine.complete(fetched);
+                    return fetched;
+                } catch (RuntimeException ex) {
+                    forget(block, mine, ex);
+                    throw ex;
+                }
+            }
+            try {
+                return next.join();
+            } catch (CompletionException | CancellationException ex) {
+                // the failed reservation was already forgotten; try again with our own source
+                block.successor.compareAndSet(next, null);
+            }
+        }
+    }
+
+    // a failed reservation is dropped so the next caller starts a fresh one
+    private static void forget(Block block, CompletableFuture<Block> next, RuntimeException ex) {
+        block.successor.compareAndSet(next, null);
+        next.completeExceptionally(ex);
+    }
+
+    private static final class Block {
+        final long end;
+        final AtomicLong next;
+        final AtomicReference<CompletableFuture<Block>> successor = new AtomicReference<>();
+
+        Block(long start, int size) {
+            this.end = start + size;
+            this.next = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.company.ecommerce.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.company.ecommerce.models.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class OrderMetrics {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary itemsPerOrder;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.itemsPerOrder = DistributionSummary.builder("orders.items")
+                .description("Distinct product lines per created order")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void orderCreated(Timer.Sample sample, int items, Throwable error) {
+        if (error == null) {
+            itemsPerOrder.record(items);
+        }
+        sample.stop(timer("orders.create", "outcome", outcome(error)));
+    }
+
+    // one sample for the whole bulk call; each created order also feeds the items summary
+    public void bulkProcessed(Timer.Sample sample, List<Integer> itemsPerCreatedOrder, int failed, Throwable error) {
+        itemsPerCreatedOrder.forEach(itemsPerOrder::record);
+        registry.counter("orders.bulk.orders", "outcome", "created").increment(itemsPerCreatedOrder.size());
+        registry.counter("orders.bulk.orders", "outcome", "failed").increment(failed);
+        sample.stop(timer("orders.bulk.create", "outcome", outcome(error)));
+    }
+
+    public void statusChanged(Timer.Sample sample, OrderStatus from, OrderStatus to, Throwable error) {
+        sample.stop(timer("orders.status.change",
+                "from", from == null ? NONE : from.name(),
+                "to", to == null ? NONE : to.name(),
+                "outcome", outcome(error)));
+    }
+
+    public void orderCancelled(Timer.Sample sample, OrderStatus from, Throwable error) {
+        sample.stop(timer("orders.cancel",
+                "from", from == null ? NONE : from.name(),
+                "outcome", outcome(error)));
+    }
+
+    // an optimistic version check failed; retried says whether another attempt follows
+    public void transitionConflict(String operation, boolean retried) {
+        registry.counter("orders.transition.conflicts", "operation", operation).increment();
+        if (retried) {
+            registry.counter("orders.transition.retries", "operation", operation).increment();
+        }
+    }
+
+    private Timer timer(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String outcome(Throwable error) {
+        return error == null ? "success" : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,24 @@
+package org.company.ecommerce.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts SQL statements Hibernate prepares on the current thread, so a request can report
+// how many database lookups it needed.
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,40 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Delivered or cancelled order moved out of orders by OrderArchiver; read-only from here on.
+// On PostgreSQL the table is range-partitioned by month of order_date (schema-postgresql.sql).
+@Entity
+@Getter
+@Setter
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_customer_date_id", columnList = "customer_email, order_date, id"),
+        @Index(name = "idx_orders_archive_date_id", columnList = "order_date, id")
+})
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+
+    @Column(name = "customer_email", nullable = false)
+    private String customerEmail;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Column(name = "total_amount", precision = 15, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
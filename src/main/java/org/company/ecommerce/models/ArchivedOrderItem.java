@@ -0,0 +1,43 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Line of an ArchivedOrder. The product name is copied at archival time, so archived orders
+// render without touching product; order_date is repeated as the partition key.
+@Entity
+@Getter
+@Setter
+@Table(name = "order_item_archive", indexes = {
+        @Index(name = "idx_order_item_archive_order_id", columnList = "order_id")
+})
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    private String category;
+
+    private Integer quantity;
+
+    @Column(name = "unit_price", precision = 15, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(name = "total_price", precision = 15, scale = 2)
+    private BigDecimal totalPrice;
+}
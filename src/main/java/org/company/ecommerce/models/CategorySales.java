@@ -0,0 +1,45 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Units and revenue of confirmed (not cancelled) orders per order day and product category.
+@Entity
+@Getter
+@Setter
+@Table(name = "category_sales")
+@IdClass(CategorySales.Key.class)
+public class CategorySales {
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    private String category;
+
+    @Id
+    private Integer slot;
+
+    @Column(name = "units_sold")
+    private Long unitsSold;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private String category;
+        private Integer slot;
+    }
+}
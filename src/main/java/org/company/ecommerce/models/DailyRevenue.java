@@ -0,0 +1,46 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Orders and revenue per order day and current status, split over slots to spread hot rows.
+@Entity
+@Getter
+@Setter
+@Table(name = "daily_revenue")
+@IdClass(DailyRevenue.Key.class)
+public class DailyRevenue {
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Id
+    private Integer slot;
+
+    @Column(name = "order_count")
+    private Long orderCount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private OrderStatus status;
+        private Integer slot;
+    }
+}
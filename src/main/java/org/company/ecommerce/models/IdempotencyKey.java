@@ -0,0 +1,29 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    // SHA-256 of the original request body, so a key reused for a different order is rejected
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Column(length = 65535)
+    private String response;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
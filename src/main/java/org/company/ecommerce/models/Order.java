@@ -3,7 +3,11 @@ package org.company.ecommerce.models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.company.ecommerce.id.BlockSequenceGenerator;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,11 +17,17 @@ import java.util.List;
 @Entity
 @Getter
 @Setter
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_date_id", columnList = "customer_email, order_date, id"),
+        @Index(name = "idx_orders_date_id", columnList = "order_date, id")
+})
 public class Order {
     @Id
     @GeneratedValue(generator = "order_seq")
-    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 1)
+    @GenericGenerator(name = "order_seq", type = BlockSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
 
     @Column(name = "customer_name", nullable = false)
@@ -30,6 +40,10 @@ public class Order {
     @CreationTimestamp
     private LocalDateTime orderDate;
 
+    // guards status transitions against concurrent read-modify-write
+    @Version
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
@@ -38,4 +52,8 @@ public class Order {
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
+
+    // read back from orders_archive by OrderArchive; such an order is detached and final
+    @Transient
+    private boolean archived;
 }
@@ -3,6 +3,10 @@ package org.company.ecommerce.models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.company.ecommerce.id.BlockSequenceGenerator;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.math.BigDecimal;
 
@@ -13,7 +17,10 @@ import java.math.BigDecimal;
 public class OrderItem {
     @Id
     @GeneratedValue(generator = "order_item_seq")
-    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 1)
+    @GenericGenerator(name = "order_item_seq", type = BlockSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_item_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -24,6 +31,13 @@ public class OrderItem {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // Copied when the order is placed: renaming the product changes neither the order nor its
+    // ETag, and moving it to another category does not move sales already counted.
+    @Column(name = "product_name")
+    private String productName;
+
+    private String category;
+
     private Integer quantity;
 
     @Column(name = "unit_price", precision = 15, scale = 2)
@@ -0,0 +1,40 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Written in the same transaction as the status change it describes; deleted once dispatched.
+@Entity
+@Getter
+@Setter
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_order_seq", columnList = "order_id, seq", unique = true)
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // the order's row version after the change; ids come in blocks per node and do not order
+    // an order's events, this does
+    @Column(name = "seq")
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status")
+    private OrderStatus toStatus;
+
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+}
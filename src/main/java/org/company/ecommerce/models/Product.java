@@ -10,11 +10,14 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "product")
+@Table(name = "product", indexes = {
+        @Index(name = "idx_product_category_created_at", columnList = "category, created_at"),
+        @Index(name = "idx_product_stock", columnList = "stock")
+})
 public class Product {
     @Id
     @GeneratedValue(generator = "product_seq")
-    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 1)
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     private String name;
     private BigDecimal price;
@@ -0,0 +1,40 @@
+package org.company.ecommerce.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Lifetime units and revenue of confirmed (not cancelled) orders per product.
+@Entity
+@Getter
+@Setter
+@Table(name = "product_sales")
+@IdClass(ProductSales.Key.class)
+public class ProductSales {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    private Integer slot;
+
+    @Column(name = "units_sold")
+    private Long unitsSold;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private Integer slot;
+    }
+}
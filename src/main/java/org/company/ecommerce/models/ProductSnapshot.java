@@ -0,0 +1,21 @@
+package org.company.ecommerce.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Immutable copy of a product row for read paths; stock is informational only.
+public record ProductSnapshot(Long id,
+                              String name,
+                              BigDecimal price,
+                              Integer stock,
+                              String category,
+                              Boolean isActive,
+                              LocalDateTime createdAt,
+                              LocalDateTime updatedAt,
+                              LocalDateTime deletedAt) {
+
+    public static ProductSnapshot of(Product p) {
+        return new ProductSnapshot(p.getId(), p.getName(), p.getPrice(), p.getStock(), p.getCategory(),
+                p.getIsActive(), p.getCreatedAt(), p.getUpdatedAt(), p.getDeletedAt());
+    }
+}
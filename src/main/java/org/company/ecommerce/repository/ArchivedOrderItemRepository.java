@@ -0,0 +1,20 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.dto.OrderItemRow;
+import org.company.ecommerce.models.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+
+    @Query("select oi from ArchivedOrderItem oi where oi.orderId in :orderIds order by oi.orderId, oi.id")
+    List<ArchivedOrderItem> findByOrderIdIn(Collection<Long> orderIds);
+
+    @Query("select new org.company.ecommerce.dto.OrderItemRow("
+            + "oi.orderId, oi.id, oi.productId, oi.productName, oi.quantity, oi.unitPrice, oi.totalPrice) "
+            + "from ArchivedOrderItem oi where oi.orderId in :orderIds order by oi.orderId, oi.id")
+    List<OrderItemRow> findRowsByOrderIdIn(Collection<Long> orderIds);
+}
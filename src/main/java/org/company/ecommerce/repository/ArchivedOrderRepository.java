@@ -0,0 +1,33 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.dto.OrderRow;
+import org.company.ecommerce.models.ArchivedOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Same listing projections as OrderRepository, so archived rows can be merged into a page of
+// hot ones.
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    String ORDER_ROW = "select new org.company.ecommerce.dto.OrderRow("
+            + "o.id, o.customerName, o.customerEmail, o.orderDate, o.status, o.totalAmount) from ArchivedOrder o ";
+
+    @Query(ORDER_ROW + "order by o.orderDate desc, o.id desc")
+    List<OrderRow> findFirstRowPage(Limit limit);
+
+    @Query(ORDER_ROW + "where o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id) "
+            + "order by o.orderDate desc, o.id desc")
+    List<OrderRow> findRowPageAfter(LocalDateTime orderDate, Long id, Limit limit);
+
+    @Query(ORDER_ROW + "where o.customerEmail = :email order by o.orderDate desc, o.id desc")
+    List<OrderRow> findFirstRowPageByCustomerEmail(String email, Limit limit);
+
+    @Query(ORDER_ROW + "where o.customerEmail = :email "
+            + "and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id)) "
+            + "order by o.orderDate desc, o.id desc")
+    List<OrderRow> findRowPageByCustomerEmailAfter(String email, LocalDateTime orderDate, Long id, Limit limit);
+}
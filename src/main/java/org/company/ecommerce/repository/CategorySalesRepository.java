@@ -0,0 +1,17 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.dto.CategorySalesReport;
+import org.company.ecommerce.models.CategorySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CategorySalesRepository extends JpaRepository<CategorySales, CategorySales.Key> {
+
+    @Query("select new org.company.ecommerce.dto.CategorySalesReport(c.category, sum(c.unitsSold), sum(c.revenue)) "
+            + "from CategorySales c where c.salesDate between :from and :to "
+            + "group by c.category having sum(c.unitsSold) <> 0 order by sum(c.unitsSold) desc, c.category")
+    List<CategorySalesReport> report(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,17 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.dto.DailyRevenueReport;
+import org.company.ecommerce.models.DailyRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, DailyRevenue.Key> {
+
+    @Query("select new org.company.ecommerce.dto.DailyRevenueReport(r.salesDate, r.status, sum(r.orderCount), sum(r.revenue)) "
+            + "from DailyRevenue r where r.salesDate between :from and :to "
+            + "group by r.salesDate, r.status having sum(r.orderCount) <> 0 order by r.salesDate, r.status")
+    List<DailyRevenueReport> report(LocalDate from, LocalDate to);
+}
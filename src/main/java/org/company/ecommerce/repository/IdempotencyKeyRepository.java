@@ -0,0 +1,30 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.models.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Claims a key with no response yet. A concurrent claim of the same key waits for the
+    // transaction holding it and then inserts nothing if that transaction committed.
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idempotency_key, fingerprint, created_at) "
+            + "values (:key, :fingerprint, :createdAt) on conflict do nothing", nativeQuery = true)
+    int claim(String key, String fingerprint, LocalDateTime createdAt);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.response = :response where k.key = :key")
+    int complete(String key, String response);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.createdAt < :cutoff")
+    int deleteExpired(String key, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
@@ -1,7 +1,17 @@
 package org.company.ecommerce.repository;
 
+import org.company.ecommerce.dto.OrderItemRow;
 import org.company.ecommerce.models.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    @Query("select new org.company.ecommerce.dto.OrderItemRow("
+            + "oi.order.id, oi.id, oi.product.id, oi.productName, oi.quantity, oi.unitPrice, oi.totalPrice) "
+            + "from OrderItem oi where oi.order.id in :orderIds order by oi.order.id, oi.id")
+    List<OrderItemRow> findRowsByOrderIdIn(Collection<Long> orderIds);
 }
@@ -1,10 +1,46 @@
 package org.company.ecommerce.repository;
 
+import org.company.ecommerce.dto.OrderRow;
 import org.company.ecommerce.models.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByCustomerEmail(String email);
+
+    // export chunks: the items of a whole chunk in one query
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+
+    @Query("select o.version from Order o where o.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // listing projections over the (orderDate, id) keyset, only the columns a response needs
+
+    String ORDER_ROW = "select new org.company.ecommerce.dto.OrderRow("
+            + "o.id, o.customerName, o.customerEmail, o.orderDate, o.status, o.totalAmount) from Order o ";
+
+    @Query(ORDER_ROW + "order by o.orderDate desc, o.id desc")
+    List<OrderRow> findFirstRowPage(Limit limit);
+
+    @Query(ORDER_ROW + "where o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id) "
+            + "order by o.orderDate desc, o.id desc")
+    List<OrderRow> findRowPageAfter(LocalDateTime orderDate, Long id, Limit limit);
+
+    @Query(ORDER_ROW + "where o.customerEmail = :email order by o.orderDate desc, o.id desc")
+    List<OrderRow> findFirstRowPageByCustomerEmail(String email, Limit limit);
+
+    @Query(ORDER_ROW + "where o.customerEmail = :email "
+            + "and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id)) "
+            + "order by o.orderDate desc, o.id desc")
+    List<OrderRow> findRowPageByCustomerEmailAfter(String email, LocalDateTime orderDate, Long id, Limit limit);
 }
@@ -0,0 +1,16 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.models.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // an order's events in the order they happened; a later change of an order always commits
+    // after the earlier one, so its predecessor is never still invisible
+    @Query("select e from OutboxEvent e order by e.orderId, e.seq")
+    List<OutboxEvent> findNextBatch(Limit limit);
+}
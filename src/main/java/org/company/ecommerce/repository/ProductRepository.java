@@ -1,12 +1,50 @@
 package org.company.ecommerce.repository;
 
+import org.company.ecommerce.dto.LowStockProduct;
 import org.company.ecommerce.models.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByIsActiveTrue(Pageable pageable);
-    Page<Product> findByNameContainingIgnoreCaseAndCategoryContainingIgnoreCase(String name, String category, Pageable pageable);
-}
 
+    // name patterns are lower-cased, escaped and wrapped by ProductService so that
+    // lower(name) matches the trigram index from schema-postgresql.sql
+    @Query("select p from Product p where lower(p.name) like :namePattern escape '\\'")
+    Page<Product> searchByName(String namePattern, Pageable pageable);
+
+    @Query("select p from Product p where lower(p.name) like :namePattern escape '\\' and p.category = :category")
+    Page<Product> searchByNameAndCategory(String namePattern, String category, Pageable pageable);
+
+    Page<Product> findByCategory(String category, Pageable pageable);
+
+    // returns 0 when the product does not have enough stock, leaving the row untouched;
+    // stock moves bump updatedAt, which the product ETag is derived from; the time is passed
+    // in so it comes from the same clock as every other updatedAt
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.updatedAt = :now "
+            + "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(Long id, int quantity, LocalDateTime now);
+
+    @Modifying
+    @Query("update Product p set p.stock = p.stock + :quantity, p.updatedAt = :now where p.id = :id")
+    int incrementStock(Long id, int quantity, LocalDateTime now);
+
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Integer> findStockById(Long id);
+
+    @Query("select p.id as id, p.stock as stock from Product p")
+    List<ProductStock> findAllStock();
+
+    @Query("select new org.company.ecommerce.dto.LowStockProduct(p.id, p.name, p.category, p.stock) from Product p "
+            + "where p.stock <= :threshold and p.deletedAt is null order by p.stock, p.id")
+    List<LowStockProduct> findLowStock(int threshold, Limit limit);
+}
@@ -0,0 +1,17 @@
+package org.company.ecommerce.repository;
+
+import org.company.ecommerce.dto.ProductSalesReport;
+import org.company.ecommerce.models.ProductSales;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ProductSalesRepository extends JpaRepository<ProductSales, ProductSales.Key> {
+
+    @Query("select new org.company.ecommerce.dto.ProductSalesReport(s.productId, p.name, sum(s.unitsSold), sum(s.revenue)) "
+            + "from ProductSales s join Product p on p.id = s.productId "
+            + "group by s.productId, p.name having sum(s.unitsSold) <> 0 order by sum(s.unitsSold) desc, s.productId")
+    List<ProductSalesReport> topSellers(Limit limit);
+}
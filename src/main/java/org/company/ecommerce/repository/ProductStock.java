@@ -0,0 +1,6 @@
+package org.company.ecommerce.repository;
+
+public interface ProductStock {
+    Long getId();
+    Integer getStock();
+}
@@ -0,0 +1,169 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.dto.BulkOrderResult;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.exceptions.BulkOrderLimitExceededException;
+import org.company.ecommerce.metrics.OrderMetrics;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.OrderRepository;
+import org.company.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates many orders in one call: products for the whole batch are read once, requests
+ * are validated and priced in parallel, and valid orders are inserted in chunked
+ * transactions. A failing chunk is replayed order by order so one bad order never rolls
+ * back its neighbours.
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+    private static final int PRODUCT_LOOKUP_BATCH = 1000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SalesAggregates salesAggregates;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Value("${orders.bulk.max-size:5000}")
+    private int maxSize;
+
+    @Value("${orders.bulk.chunk-size:200}")
+    private int chunkSize;
+
+    public List<BulkOrderResult> createOrders(List<CreateOrderRequest> requests) {
+        if (requests.size() > maxSize) {
+            throw new BulkOrderLimitExceededException(maxSize);
+        }
+        Timer.Sample sample = orderMetrics.start();
+        try {
+            return process(requests, sample);
+        } catch (RuntimeException ex) {
+            orderMetrics.bulkProcessed(sample, List.of(), 0, ex);
+            throw ex;
+        }
+    }
+
+    private List<BulkOrderResult> process(List<CreateOrderRequest> requests, Timer.Sample sample) {
+        Map<Long, Product> products = loadProducts(requests);
+
+        BulkOrderResult[] results = new BulkOrderResult[requests.size()];
+        Order[] orders = new Order[requests.size()];
+        IntStream.range(0, requests.size()).parallel().forEach(i -> {
+            try {
+                validate(requests.get(i));
+                orders[i] = orderService.buildOrder(requests.get(i), products);
+            } catch (RuntimeException ex) {
+                results[i] = BulkOrderResult.failed(i, ex.getMessage());
+            }
+        });
+
+        List<Integer> pending = new ArrayList<>(requests.size());
+        for (int i = 0; i < orders.length; i++) {
+            if (orders[i] != null) pending.add(i);
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            persistChunk(tx, chunk, requests, products, orders, results);
+        }
+
+        // a replayed order is rebuilt from the same request, so it has as many lines as orders[i]
+        List<Integer> itemsPerCreatedOrder = pending.stream()
+                .filter(i -> results[i].getOrderId() != null)
+                .map(i -> orders[i].getOrderItems().size())
+                .toList();
+        int created = itemsPerCreatedOrder.size();
+        log.info("Bulk request processed: {} orders, {} created, {} failed",
+                requests.size(), created, requests.size() - created);
+        orderMetrics.bulkProcessed(sample, itemsPerCreatedOrder, requests.size() - created, null);
+        return List.of(results);
+    }
+
+    private void persistChunk(TransactionTemplate tx, List<Integer> chunk, List<CreateOrderRequest> requests,
+                              Map<Long, Product> products, Order[] orders, BulkOrderResult[] results) {
+        try {
+            tx.executeWithoutResult(s -> {
+                List<Order> saved = orderRepository.saveAll(chunk.stream().map(i -> orders[i]).toList());
+                orderRepository.flush();
+                salesAggregates.ordersCreated(saved);
+            });
+            chunk.forEach(i -> results[i] = BulkOrderResult.created(i, orders[i].getId(), orders[i].getTotalAmount()));
+        } catch (RuntimeException chunkFailure) {
+            log.warn("Bulk chunk of {} orders failed, retrying individually: {}", chunk.size(), chunkFailure.getMessage());
+            for (Integer i : chunk) {
+                try {
+                    // entities from the rolled back chunk already carry ids, so build afresh
+                    Order order = orderService.buildOrder(requests.get(i), products);
+                    Order saved = tx.execute(s -> {
+                        Order persisted = orderRepository.saveAndFlush(order);
+                        salesAggregates.ordersCreated(List.of(persisted));
+                        return persisted;
+                    });
+                    results[i] = BulkOrderResult.created(i, saved.getId(), saved.getTotalAmount());
+                } catch (RuntimeException ex) {
+                    results[i] = BulkOrderResult.failed(i, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private Map<Long, Product> loadProducts(List<CreateOrderRequest> requests) {
+        Set<Long> ids = new HashSet<>();
+        requests.forEach(r -> ids.addAll(orderService.productIds(r)));
+        ids.remove(null);
+
+        List<Long> all = new ArrayList<>(ids);
+        Map<Long, Product> products = new HashMap<>(all.size());
+        for (int from = 0; from < all.size(); from += PRODUCT_LOOKUP_BATCH) {
+            List<Long> batch = all.subList(from, Math.min(from + PRODUCT_LOOKUP_BATCH, all.size()));
+            productRepository.findAllById(batch).forEach(p -> products.put(p.getId(), p));
+        }
+        return products;
+    }
+
+    private void validate(CreateOrderRequest req) {
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+}
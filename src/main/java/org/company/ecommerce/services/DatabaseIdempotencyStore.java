@@ -0,0 +1,89 @@
+package org.company.ecommerce.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.dto.OrderResponse;
+import org.company.ecommerce.exceptions.IdempotencyKeyInProgressException;
+import org.company.ecommerce.models.IdempotencyKey;
+import org.company.ecommerce.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Shared by all nodes; a lookup is one primary-key read on idempotency_keys.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    // read-write on purpose: a key stored moments ago may not have reached a read replica yet
+    @Override
+    @Transactional
+    public Entry find(String key) {
+        return repository.findById(key)
+                .filter(row -> row.getResponse() != null)
+                .filter(row -> row.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(row -> new Entry(row.getFingerprint(), read(row.getResponse())))
+                .orElse(null);
+    }
+
+    // A claim and its response commit together, so a key another node has claimed is seen
+    // only after that node's order committed; an expired record no longer holds its key.
+    @Override
+    @Transactional
+    public Entry claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.deleteExpired(key, now.minus(ttl));
+        if (repository.claim(key, fingerprint, now) == 1) {
+            return null;
+        }
+        Entry recorded = find(key);
+        if (recorded == null) {
+            throw new IdempotencyKeyInProgressException(key);
+        }
+        return recorded;
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, Entry entry) {
+        try {
+            repository.complete(key, objectMapper.writeValueAsString(entry.response()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response for idempotency key " + key, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (removed > 0) {
+            log.debug("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private OrderResponse read(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt idempotency record", e);
+        }
+    }
+}
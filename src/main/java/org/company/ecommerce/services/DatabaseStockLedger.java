@@ -0,0 +1,46 @@
+package org.company.ecommerce.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.exceptions.InsufficientStockException;
+import org.company.ecommerce.exceptions.ProductNotFoundException;
+import org.company.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseStockLedger implements StockLedger {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Each row is decremented with a single conditional UPDATE; ascending id order keeps
+    // concurrent confirmations locking rows in the same sequence. A miss throws and rolls
+    // back the decrements already applied in the surrounding transaction.
+    @Override
+    public void reserve(SortedMap<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (productRepository.decrementStock(line.getKey(), line.getValue(), now) == 0) {
+                log.warn("Insufficient stock for product {}", line.getKey());
+                throw new InsufficientStockException(line.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void release(SortedMap<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (productRepository.incrementStock(line.getKey(), line.getValue(), now) == 0) {
+                throw new ProductNotFoundException(line.getKey());
+            }
+        }
+    }
+}
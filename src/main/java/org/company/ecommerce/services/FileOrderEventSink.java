@@ -0,0 +1,37 @@
+package org.company.ecommerce.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.company.ecommerce.dto.OrderEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends events as NDJSON, one batch per write.
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOrderEventSink implements OrderEventSink {
+
+    @Value("${outbox.file.path:order-events.ndjson}")
+    private Path path;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void publish(List<OrderEvent> events) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OrderEvent event : events) {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.company.ecommerce.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.OrderResponse;
+import org.company.ecommerce.exceptions.IdempotencyKeyReuseException;
+import org.company.ecommerce.exceptions.InvalidIdempotencyKeyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs an order creation at most once per Idempotency-Key. Completed keys are answered from
+ * the {@link IdempotencyStore}; duplicates that arrive while the first request is still running
+ * wait for its result instead of creating a second order. The key is claimed before the order
+ * is written and completed in the same transaction, so a crash between the two cannot leave an
+ * order without its key. Failed creations roll the claim back, so the client can retry them
+ * with the same key.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotencyStore.Entry>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    public OrderResponse execute(String key, CreateOrderRequest req, Supplier<OrderResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        String fingerprint = fingerprint(req);
+
+        IdempotencyStore.Entry done = store.find(key);
+        if (done != null) {
+            return replay(key, fingerprint, done, "hit");
+        }
+
+        CompletableFuture<IdempotencyStore.Entry> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyStore.Entry> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return replay(key, fingerprint, await(running), "coalesced");
+        }
+        try {
+            // the previous holder may have finished between the lookup and putIfAbsent
+            done = store.find(key);
+            if (done != null) {
+                mine.complete(done);
+                return replay(key, fingerprint, done, "hit");
+            }
+            Claim claim = tx.execute(s -> {
+                IdempotencyStore.Entry recorded = store.claim(key, fingerprint);
+                if (recorded != null) {
+                    return new Claim(recorded, false);
+                }
+                IdempotencyStore.Entry entry = new IdempotencyStore.Entry(fingerprint, action.get());
+                store.complete(key, entry);
+                return new Claim(entry, true);
+            });
+            mine.complete(claim.entry());
+            if (!claim.created()) {
+                // another node created the order between our lookup and the claim
+                return replay(key, fingerprint, claim.entry(), "hit");
+            }
+            count("miss");
+            return claim.entry().response();
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private record Claim(IdempotencyStore.Entry entry, boolean created) {
+    }
+
+    private OrderResponse replay(String key, String fingerprint, IdempotencyStore.Entry entry, String result) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Replaying order {} for idempotency key {} ({})", entry.response().getId(), key, result);
+        }
+        count(result);
+        return entry.response();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("orders.idempotency", "result", result).increment();
+    }
+
+    private String fingerprint(CreateOrderRequest req) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(req));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint order request", e);
+        }
+    }
+
+    private static IdempotencyStore.Entry await(CompletableFuture<IdempotencyStore.Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.dto.OrderResponse;
+
+/**
+ * Remembers the response of a completed order creation under its Idempotency-Key. A key is
+ * claimed and completed inside the transaction that creates the order, so it is recorded
+ * exactly when the order commits. Entries live for {@code idempotency.ttl};
+ * {@code idempotency.store} selects the implementation.
+ */
+public interface IdempotencyStore {
+
+    record Entry(String fingerprint, OrderResponse response) {
+    }
+
+    // null when the key is unknown, has expired or is still claimed by a running creation
+    Entry find(String key);
+
+    // Claims the key in the current transaction; a rollback releases it. Returns null when the
+    // caller now holds the key, otherwise the entry recorded by whoever held it before.
+    Entry claim(String key, String fingerprint);
+
+    // records the response for a key claimed earlier in the same transaction
+    void complete(String key, Entry entry);
+}
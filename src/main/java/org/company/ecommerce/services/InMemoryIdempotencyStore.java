@@ -0,0 +1,81 @@
+package org.company.ecommerce.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.company.ecommerce.exceptions.IdempotencyKeyInProgressException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Single-node store: a retry that lands on another instance is not deduplicated.
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    @Value("${idempotency.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    private Cache<String, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Entry find(String key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry == null || entry.response() == null ? null : entry;
+    }
+
+    // the claim is a placeholder entry without a response, dropped again if the transaction
+    // rolls back
+    @Override
+    public Entry claim(String key, String fingerprint) {
+        Entry claim = new Entry(fingerprint, null);
+        Entry existing = entries.asMap().putIfAbsent(key, claim);
+        if (existing != null) {
+            if (existing.response() == null) {
+                throw new IdempotencyKeyInProgressException(key);
+            }
+            return existing;
+        }
+        afterCompletion(committed -> {
+            if (!committed) entries.asMap().remove(key, claim);
+        });
+        return null;
+    }
+
+    // published only once the order has committed
+    @Override
+    public void complete(String key, Entry entry) {
+        afterCompletion(committed -> {
+            if (committed) entries.put(key, entry);
+        });
+    }
+
+    private static void afterCompletion(Consumer<Boolean> outcome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outcome.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                outcome.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
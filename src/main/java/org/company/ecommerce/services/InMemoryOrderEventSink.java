@@ -0,0 +1,38 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.dto.OrderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Bounded queue for tests and local runs. A batch that does not fit is rejected whole, which
+// pushes back on the dispatcher until a consumer drains the queue.
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory")
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final BlockingQueue<OrderEvent> queue;
+
+    public InMemoryOrderEventSink(@Value("${outbox.memory.capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void publish(List<OrderEvent> events) {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IllegalStateException("Order event queue is full");
+        }
+        queue.addAll(events);
+    }
+
+    public List<OrderEvent> drain() {
+        List<OrderEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        return events;
+    }
+}
@@ -0,0 +1,205 @@
+package org.company.ecommerce.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.exceptions.InsufficientStockException;
+import org.company.ecommerce.exceptions.ProductNotFoundException;
+import org.company.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps available stock per product in CAS counters so confirmations of a hot SKU never
+ * wait on its database row. Committed reservations and releases accumulate as net deltas
+ * that are written back to {@code product.stock} in periodic JDBC batches.
+ * <p>
+ * Counters are only authoritative while this node is the single writer of stock; run
+ * with {@code inventory.mode=database} when several application nodes share the database.
+ * <p>
+ * A counter always equals the stock column plus unflushed deltas minus reservations still in
+ * flight. Loading a counter and flushing deltas are serialized so a load never sees a delta
+ * that has left {@code unflushed} but is not yet committed to the column.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "memory")
+public class InMemoryStockLedger implements StockLedger {
+
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> unflushed = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate flushTx;
+
+    @PostConstruct
+    void recover() {
+        // flushed deltas must not be rolled back with whatever transaction triggered the flush
+        flushTx = new TransactionTemplate(transactionManager);
+        flushTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        productRepository.findAllStock().forEach(s ->
+                available.put(s.getId(), new AtomicInteger(s.getStock() == null ? 0 : s.getStock())));
+        log.info("Recovered in-memory stock for {} products", available.size());
+    }
+
+    @Override
+    public void reserve(SortedMap<Long, Integer> quantities) {
+        List<Taken> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            AtomicInteger counter = counter(line.getKey());
+            if (!tryTake(counter, line.getValue())) {
+                taken.forEach(t -> t.counter().addAndGet(t.quantity()));
+                log.warn("Insufficient stock for product {}", line.getKey());
+                throw new InsufficientStockException(line.getKey());
+            }
+            taken.add(new Taken(line.getKey(), counter, line.getValue()));
+        }
+        // stock stays taken until the transaction outcome is known; a rollback gives it back
+        afterCompletion(committed -> taken.forEach(t -> settle(t, committed)));
+    }
+
+    @Override
+    public void release(SortedMap<Long, Integer> quantities) {
+        quantities.keySet().forEach(this::counter);
+        // released stock only becomes reservable once the cancellation has committed
+        afterCompletion(committed -> {
+            if (!committed) return;
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                available.compute(line.getKey(), (id, current) -> {
+                    addUnflushed(id, line.getValue());
+                    if (current != null) current.addAndGet(line.getValue());
+                    return current;
+                });
+            }
+        });
+    }
+
+    // Pending deltas are written before the caller overwrites the column, in their own
+    // transaction; the counter is dropped only once the overwrite has committed.
+    @Override
+    public void evict(Long productId) {
+        flush();
+        afterCompletion(committed -> {
+            if (committed) available.remove(productId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> batch = new ArrayList<>();
+            for (Map.Entry<Long, AtomicInteger> e : unflushed.entrySet()) {
+                int delta = e.getValue().getAndSet(0);
+                if (delta != 0) {
+                    batch.add(new Object[]{delta, now, e.getKey()});
+                }
+            }
+            if (batch.isEmpty()) return;
+            try {
+                flushTx.executeWithoutResult(s -> jdbcTemplate.batchUpdate(
+                        "update product set stock = stock + ?, updated_at = ? where id = ?", batch));
+                log.debug("Flushed stock deltas for {} products", batch.size());
+            } catch (RuntimeException ex) {
+                batch.forEach(b -> addUnflushed((Long) b[2], (Integer) b[0]));
+                log.error("Failed to flush stock deltas, will retry", ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    int available(Long productId) {
+        return counter(productId).get();
+    }
+
+    private AtomicInteger counter(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) return counter;
+        return available.computeIfAbsent(productId, id -> {
+            synchronized (flushLock) {
+                Integer stock = productRepository.findStockById(id)
+                        .orElseThrow(() -> new ProductNotFoundException(id));
+                AtomicInteger pending = unflushed.get(id);
+                return new AtomicInteger((stock == null ? 0 : stock) + (pending == null ? 0 : pending.get()));
+            }
+        });
+    }
+
+    // A counter evicted while the reservation was in flight has been replaced by one loaded
+    // from the column, which never saw the reservation: a commit is charged to the replacement
+    // and a rollback owes it nothing. Loads hold the same map lock, so they see both or neither.
+    private void settle(Taken t, boolean committed) {
+        available.compute(t.productId(), (id, current) -> {
+            if (committed) {
+                addUnflushed(id, -t.quantity());
+                if (current != null && current != t.counter()) current.addAndGet(-t.quantity());
+            } else if (current == t.counter()) {
+                current.addAndGet(t.quantity());
+            }
+            return current;
+        });
+    }
+
+    private static boolean tryTake(AtomicInteger counter, int quantity) {
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) return false;
+        } while (!counter.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private void addUnflushed(Long productId, int delta) {
+        unflushed.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(delta);
+    }
+
+    private record Taken(Long productId, AtomicInteger counter, int quantity) {
+    }
+
+    private interface Outcome {
+        void apply(boolean committed);
+    }
+
+    private static void afterCompletion(Outcome outcome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outcome.apply(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                outcome.apply(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package org.company.ecommerce.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.dto.OrderEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOrderEventSink implements OrderEventSink {
+
+    @Override
+    public void publish(List<OrderEvent> events) {
+        // checked once per batch: with INFO off the loop would only build varargs arrays
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        for (OrderEvent event : events) {
+            log.info("Order {} {} -> {} (seq {}, event {})", event.orderId(), event.fromStatus(), event.toStatus(),
+                    event.seq(), event.eventId());
+        }
+    }
+}
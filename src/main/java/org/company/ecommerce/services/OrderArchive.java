@@ -0,0 +1,101 @@
+package org.company.ecommerce.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.models.*;
+import org.company.ecommerce.repository.ArchivedOrderItemRepository;
+import org.company.ecommerce.repository.ArchivedOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of the order archive. Archived orders come back as detached {@link Order}s marked
+ * archived, with items and products rebuilt from the archived lines; they are never saved.
+ * Until the first order has been archived, listings do not query the archive at all. Other
+ * nodes notice the first archival within {@code orders.archive.check-interval-ms}.
+ */
+@Slf4j
+@Component
+public class OrderArchive {
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Value("${orders.archive.retention:90d}")
+    private Duration retention;
+
+    // the archive only grows, so once rows have been seen it is never checked again
+    private volatile boolean populated;
+
+    // a failed check leaves the flag as it was; the next one tries again
+    @Scheduled(fixedDelayString = "${orders.archive.check-interval-ms:1000}")
+    void checkPopulated() {
+        if (!populated) {
+            try {
+                populated = archivedOrderRepository.count() > 0;
+            } catch (DataAccessException e) {
+                log.debug("Could not check whether the order archive has rows", e);
+            }
+        }
+    }
+
+    public boolean populated() {
+        return populated;
+    }
+
+    void markPopulated() {
+        populated = true;
+    }
+
+    // OrderArchiver only moves orders older than the retention, so nothing newer is archived
+    public LocalDateTime horizon() {
+        return LocalDateTime.now().minus(retention);
+    }
+
+    public Optional<Order> find(Long id) {
+        return archivedOrderRepository.findById(id)
+                .map(o -> toOrder(o, archivedOrderItemRepository.findByOrderIdIn(List.of(id))));
+    }
+
+    private static Order toOrder(ArchivedOrder archived, List<ArchivedOrderItem> lines) {
+        Order order = new Order();
+        order.setId(archived.getId());
+        order.setCustomerName(archived.getCustomerName());
+        order.setCustomerEmail(archived.getCustomerEmail());
+        order.setOrderDate(archived.getOrderDate());
+        order.setStatus(archived.getStatus());
+        order.setTotalAmount(archived.getTotalAmount());
+        order.setArchived(true);
+
+        List<OrderItem> items = new ArrayList<>(lines.size());
+        for (ArchivedOrderItem line : lines) {
+            Product product = new Product();
+            product.setId(line.getProductId());
+            product.setName(line.getProductName());
+
+            OrderItem item = new OrderItem();
+            item.setId(line.getId());
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setProductName(line.getProductName());
+            item.setCategory(line.getCategory());
+            item.setQuantity(line.getQuantity());
+            item.setUnitPrice(line.getUnitPrice());
+            item.setTotalPrice(line.getTotalPrice());
+            items.add(item);
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,159 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.models.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves delivered and cancelled orders older than {@code orders.archive.retention} from
+ * orders/order_item to orders_archive/order_item_archive, so the hot tables and their indexes
+ * only hold recent and open orders. Each chunk of {@code orders.archive.chunk-size} orders is
+ * locked, copied and deleted in one transaction; a status change racing with it fails its
+ * version check and, on retry, finds the order archived. With {@code orders.archive.partitioned}
+ * the monthly partitions a run needs are created before the first chunk. Run it on one node
+ * only ({@code orders.archive.enabled}); readers on every node fall back to the archive.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "orders.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchiver {
+
+    private static final List<String> ARCHIVABLE = List.of(OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name());
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String SELECT_CHUNK = "select id from orders where status in (:statuses) and order_date < :cutoff "
+            + "order by order_date, id limit :limit for update";
+    private static final String OLDEST = "select min(order_date) from orders where status in (:statuses) and order_date < :cutoff";
+    private static final String COPY_ORDERS = "insert into orders_archive "
+            + "(id, customer_name, customer_email, order_date, status, total_amount, archived_at) "
+            + "select id, customer_name, customer_email, order_date, status, total_amount, :now from orders where id in (:ids)";
+    private static final String COPY_ITEMS = "insert into order_item_archive "
+            + "(id, order_id, order_date, product_id, product_name, category, quantity, unit_price, total_price) "
+            + "select oi.id, oi.order_id, o.order_date, oi.product_id, oi.product_name, oi.category, "
+            + "oi.quantity, oi.unit_price, oi.total_price "
+            + "from order_item oi join orders o on o.id = oi.order_id where oi.order_id in (:ids)";
+    private static final String DELETE_ITEMS = "delete from order_item where order_id in (:ids)";
+    private static final String DELETE_ORDERS = "delete from orders where id in (:ids)";
+    private static final String CREATE_PARTITION = "create table if not exists %1$s_%2$s partition of %1$s "
+            + "for values from ('%3$s') to ('%4$s')";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${orders.archive.retention:90d}")
+    private Duration retention;
+
+    @Value("${orders.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${orders.archive.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    @Value("${orders.archive.partitioned:false}")
+    private boolean partitioned;
+
+    private TransactionTemplate tx;
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+    private Counter archived;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+        archived = meterRegistry.counter("orders.archived");
+        chunkTimer = Timer.builder("orders.archive.chunk")
+                .description("Time to copy and delete one chunk of archived orders")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}", initialDelayString = "${orders.archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        if (partitioned) {
+            createPartitions(cutoff);
+        }
+        long total = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            Integer moved = chunkTimer.record(() -> tx.execute(s -> archiveChunk(cutoff)));
+            total += moved == null ? 0 : moved;
+            if (moved == null || moved < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} orders placed before {}", total, cutoff);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = jdbc.queryForList(SELECT_CHUNK, Map.of(
+                "statuses", ARCHIVABLE, "cutoff", Timestamp.valueOf(cutoff), "limit", chunkSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> params = Map.of("ids", ids, "now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbc.update(COPY_ORDERS, params);
+        jdbc.update(COPY_ITEMS, params);
+        jdbc.update(DELETE_ITEMS, params);
+        jdbc.update(DELETE_ORDERS, params);
+        // before the commit that removes these orders from the hot tables, so no reader on
+        // this node skips the archive while they are only there
+        orderArchive.markPopulated();
+        archived.increment(ids.size());
+        return ids.size();
+    }
+
+    // Partitions are created in their own statements, outside the chunk transactions, so the
+    // lock DDL takes on the parent table is held only briefly.
+    private void createPartitions(LocalDateTime cutoff) {
+        Timestamp oldest = jdbc.queryForObject(OLDEST,
+                Map.of("statuses", ARCHIVABLE, "cutoff", Timestamp.valueOf(cutoff)), Timestamp.class);
+        if (oldest == null) {
+            return;
+        }
+        YearMonth last = YearMonth.from(cutoff);
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!partitions.contains(month)) {
+                for (String table : List.of("orders_archive", "order_item_archive")) {
+                    jdbcTemplate.execute(String.format(CREATE_PARTITION, table, month.format(PARTITION_SUFFIX),
+                            month.atDay(1), month.plusMonths(1).atDay(1)));
+                }
+                partitions.add(month);
+            }
+        }
+    }
+}
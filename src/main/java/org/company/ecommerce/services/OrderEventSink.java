@@ -0,0 +1,15 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.dto.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Destination for dispatched order events, selected with {@code outbox.sink}. A batch is
+ * delivered in outbox order; throwing leaves the whole batch in the outbox to be retried,
+ * so delivery is at-least-once.
+ */
+public interface OrderEventSink {
+
+    void publish(List<OrderEvent> events) throws Exception;
+}
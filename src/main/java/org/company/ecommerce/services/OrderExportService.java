@@ -0,0 +1,109 @@
+package org.company.ecommerce.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.repository.OrderRepository;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class OrderExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orders.export.fetch-size:500}")
+    private int fetchSize;
+
+    public interface ChunkWriter {
+        void write(List<Order> orders) throws IOException;
+    }
+
+    /**
+     * Scrolls matching orders forward-only and hands them to the writer in chunks of
+     * {@code orders.export.fetch-size}, with items loaded per chunk. The persistence
+     * context is cleared after every chunk so memory use does not grow with the size of
+     * the export.
+     */
+    public long export(LocalDateTime from, LocalDateTime to, OrderStatus status, ChunkWriter writer) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        Long exported = tx.execute(s -> {
+            SelectionQuery<Order> query = buildQuery(from, to, status);
+            long count = 0;
+            try (ScrollableResults<Order> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                List<Order> chunk = new ArrayList<>(fetchSize);
+                while (rows.next()) {
+                    chunk.add(rows.get());
+                    if (chunk.size() == fetchSize) {
+                        count += flushChunk(chunk, writer);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    count += flushChunk(chunk, writer);
+                }
+            }
+            return count;
+        });
+        log.info("Exported {} orders (from={}, to={}, status={})", exported, from, to, status);
+        return exported == null ? 0 : exported;
+    }
+
+    private SelectionQuery<Order> buildQuery(LocalDateTime from, LocalDateTime to, OrderStatus status) {
+        StringBuilder hql = new StringBuilder("select o from Order o where 1 = 1");
+        if (from != null) hql.append(" and o.orderDate >= :from");
+        if (to != null) hql.append(" and o.orderDate < :to");
+        if (status != null) hql.append(" and o.status = :status");
+        hql.append(" order by o.orderDate, o.id");
+
+        SelectionQuery<Order> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(hql.toString(), Order.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+        if (from != null) query.setParameter("from", from);
+        if (to != null) query.setParameter("to", to);
+        if (status != null) query.setParameter("status", status);
+        return query;
+    }
+
+    private int flushChunk(List<Order> chunk, ChunkWriter writer) {
+        List<Long> ids = chunk.stream().map(Order::getId).toList();
+        Map<Long, Order> loaded = orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        try {
+            writer.write(ids.stream().map(loaded::get).toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int written = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return written;
+    }
+}
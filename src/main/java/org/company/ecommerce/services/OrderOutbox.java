@@ -0,0 +1,31 @@
+package org.company.ecommerce.services;
+
+import jakarta.transaction.Transactional;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.OutboxEvent;
+import org.company.ecommerce.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class OrderOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    // MANDATORY: the event must commit or roll back together with the status change. The order
+    // must already be flushed, so its version is the one this change produces.
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void statusChanged(Order order, OrderStatus from) {
+        OutboxEvent event = new OutboxEvent();
+        event.setOrderId(order.getId());
+        event.setSeq(order.getVersion());
+        event.setFromStatus(from);
+        event.setToStatus(order.getStatus());
+        event.setOccurredAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
@@ -1,34 +1,119 @@
 package org.company.ecommerce.services;
 
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.Timer;
 import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.OrderCursor;
+import org.company.ecommerce.dto.OrderItemRow;
+import org.company.ecommerce.dto.OrderRow;
+import org.company.ecommerce.dto.OrderRowPage;
 import org.company.ecommerce.exceptions.*;
+import org.company.ecommerce.metrics.OrderMetrics;
 import org.company.ecommerce.models.*;
+import org.company.ecommerce.repository.ArchivedOrderItemRepository;
+import org.company.ecommerce.repository.ArchivedOrderRepository;
+import org.company.ecommerce.repository.OrderItemRepository;
 import org.company.ecommerce.repository.OrderRepository;
 import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.OrderStateMachine.StockEffect;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 @Slf4j
 @Service
 public class OrderService {
 
+    private static final String ARCHIVED_TAG = "archived";
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private SalesAggregates salesAggregates;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Value("${orders.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${orders.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${orders.transition.max-attempts:3}")
+    private int maxTransitionAttempts;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transitionTx;
+
+    @PostConstruct
+    void init() {
+        transitionTx = new TransactionTemplate(transactionManager);
+    }
+
     @Transactional
     public Order createOrder(CreateOrderRequest req) {
-        log.info("Creating order for customer: {}", req.getCustomerEmail());
+        log.debug("Creating order for customer: {}", req.getCustomerEmail());
+        Timer.Sample sample = orderMetrics.start();
+        try {
+            Map<Long, Product> products = productRepository.findAllById(productIds(req)).stream()
+                    .collect(Collectors.toMap(Product::getId, p -> p));
+            Order order = buildOrder(req, products);
 
+            Order saved = orderRepository.save(order);
+            salesAggregates.ordersCreated(List.of(saved));
+            log.info("Order {} created successfully with total {}", saved.getId(), saved.getTotalAmount());
+            orderMetrics.orderCreated(sample, saved.getOrderItems().size(), null);
+            return saved;
+        } catch (RuntimeException ex) {
+            orderMetrics.orderCreated(sample, 0, ex);
+            throw ex;
+        }
+    }
+
+    // Validates and prices a request against products that were already loaded; no I/O.
+    public Order buildOrder(CreateOrderRequest req, Map<Long, Product> products) {
         if (!StringUtils.hasText(req.getCustomerName()) || !StringUtils.hasText(req.getCustomerEmail())) {
             log.error("Invalid customer info: name={}, email={}", req.getCustomerName(), req.getCustomerEmail());
             throw new IllegalArgumentException("Customer name and email required");
@@ -45,14 +130,18 @@ public class OrderService {
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(OrderStatus.PENDING);
 
+        Map<Long, Integer> quantities = mergeQuantities(req.getItems());
+
         BigDecimal total = BigDecimal.ZERO;
-        List<OrderItem> items = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>(quantities.size());
 
-        for (CreateOrderRequest.OrderItemRequest itReq : req.getItems()) {
-            Product product = productRepository.findById(itReq.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException(itReq.getProductId()));
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new ProductNotFoundException(line.getKey());
+            }
 
-            log.debug("Adding product {} (qty {}) to order", product.getName(), itReq.getQuantity());
+            log.debug("Adding product {} (qty {}) to order", product.getName(), line.getValue());
 
             if (product.getStock() == null || product.getStock() <= 0) {
                 log.error("Insufficient stock for product {}", product.getId());
@@ -60,12 +149,14 @@ public class OrderService {
             }
 
             BigDecimal unitPrice = product.getPrice();
-            BigDecimal itemTotal = unitPrice.multiply(BigDecimal.valueOf(itReq.getQuantity()));
+            BigDecimal itemTotal = unitPrice.multiply(BigDecimal.valueOf(line.getValue()));
 
             OrderItem oi = new OrderItem();
             oi.setOrder(order);
             oi.setProduct(product);
-            oi.setQuantity(itReq.getQuantity());
+            oi.setProductName(product.getName());
+            oi.setCategory(product.getCategory());
+            oi.setQuantity(line.getValue());
             oi.setUnitPrice(unitPrice);
             oi.setTotalPrice(itemTotal);
 
@@ -75,90 +166,219 @@ public class OrderService {
 
         order.setOrderItems(items);
         order.setTotalAmount(total);
+        return order;
+    }
 
-        Order saved = orderRepository.save(order);
-        log.info("Order {} created successfully with total {}", saved.getId(), saved.getTotalAmount());
-        return saved;
+    public Set<Long> productIds(CreateOrderRequest req) {
+        if (req.getItems() == null) return Set.of();
+        Set<Long> ids = new HashSet<>();
+        for (CreateOrderRequest.OrderItemRequest line : req.getItems()) {
+            ids.add(line.getProductId());
+        }
+        return ids;
+    }
+
+    // duplicate product lines are merged, keeping first-seen order
+    private Map<Long, Integer> mergeQuantities(List<CreateOrderRequest.OrderItemRequest> lines) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CreateOrderRequest.OrderItemRequest line : lines) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 
+    @Transactional(readOnly = true)
     public Order getOrder(Long id) {
-        return orderRepository.findById(id).orElseThrow(() -> new OrderNotFoundException(id));
+        // items come along so the order can be rendered after the transaction has ended;
+        // the archive is only asked when the hot table misses
+        return orderRepository.findWithItemsById(id)
+                .or(() -> orderArchive.find(id))
+                .orElseThrow(() -> new OrderNotFoundException(id));
     }
 
-    public List<Order> listAll() {
-        return orderRepository.findAll();
+    // Validator for conditional GETs, read without loading the order: the row version, or a
+    // fixed tag once the order is archived, since archived orders never change again.
+    @Transactional(readOnly = true)
+    public Optional<String> versionTag(Long id) {
+        Optional<Long> version = orderRepository.findVersionById(id);
+        if (version.isPresent()) {
+            return version.map(v -> "v" + v);
+        }
+        return archivedOrderRepository.existsById(id) ? Optional.of(ARCHIVED_TAG) : Optional.empty();
     }
 
-    public List<Order> findByCustomerEmail(String email) {
-        return orderRepository.findByCustomerEmail(email);
+    public static String versionTag(Order order) {
+        return order.isArchived() ? ARCHIVED_TAG : "v" + order.getVersion();
     }
 
-    @Transactional
-    public Order changeStatus(Long orderId, OrderStatus newStatus) {
-        Order order = getOrder(orderId);
-        OrderStatus old = order.getStatus();
+    // Everything archived is older than the archive horizon, so when a full page of hot rows
+    // (look-ahead row included) ends at or after it, the archive cannot contribute and is not
+    // queried; neither is an archive that has never received an order. Otherwise both sides
+    // are merged on the keyset order; an order archived between the two queries may show up
+    // in both and is kept once.
+    private List<OrderRow> withArchivedRows(List<OrderRow> hot, Limit limit, Supplier<List<OrderRow>> archived) {
+        if (!orderArchive.populated()) {
+            return hot;
+        }
+        if (hot.size() >= limit.max() && !hot.get(hot.size() - 1).orderDate().isBefore(orderArchive.horizon())) {
+            return hot;
+        }
+        List<OrderRow> cold = archived.get();
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        Map<Long, OrderRow> merged = new LinkedHashMap<>();
+        Stream.concat(hot.stream(), cold.stream())
+                .sorted(Comparator.comparing(OrderRow::orderDate).thenComparing(OrderRow::id).reversed())
+                .forEach(row -> merged.putIfAbsent(row.id(), row));
+        return merged.values().stream().limit(limit.max()).toList();
+    }
+
+    // one extra row is requested so we know whether another page exists
+    private Limit pageLimit(Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return Limit.of(pageSize + 1);
+    }
 
-        if (old == newStatus) return order;
-        if (old == OrderStatus.CANCELLED || old == OrderStatus.DELIVERED) {
-            throw new InvalidOrderStatusException("Cannot change status from " + old);
+    // Listings: rows come straight from SQL and items are fetched in one query for the whole
+    // page, or not at all.
+    @Transactional(readOnly = true)
+    public OrderRowPage listRows(String cursor, Integer size, boolean withItems) {
+        Limit limit = pageLimit(size);
+        if (cursor == null) {
+            return toRowPage(withArchivedRows(orderRepository.findFirstRowPage(limit), limit,
+                    () -> archivedOrderRepository.findFirstRowPage(limit)), limit, withItems);
         }
+        OrderCursor after = OrderCursor.decode(cursor);
+        return toRowPage(withArchivedRows(orderRepository.findRowPageAfter(after.orderDate(), after.id(), limit), limit,
+                () -> archivedOrderRepository.findRowPageAfter(after.orderDate(), after.id(), limit)), limit, withItems);
+    }
 
-        if (old == OrderStatus.PENDING && newStatus == OrderStatus.CONFIRMED) {
-            for (OrderItem oi : order.getOrderItems()) {
-                Product p = productRepository.findById(oi.getProduct().getId())
-                        .orElseThrow(() -> new ProductNotFoundException(oi.getProduct().getId()));
-                if (p.getStock() < oi.getQuantity()) {
-                    throw new InsufficientStockException(p.getId());
-                }
-            }
-            for (OrderItem oi : order.getOrderItems()) {
-                Product p = productRepository.findById(oi.getProduct().getId()).get();
-                p.setStock(p.getStock() - oi.getQuantity());
-                productRepository.save(p);
-            }
-            order.setStatus(OrderStatus.CONFIRMED);
-            return orderRepository.save(order);
+    @Transactional(readOnly = true)
+    public OrderRowPage findRowsByCustomerEmail(String email, String cursor, Integer size, boolean withItems) {
+        Limit limit = pageLimit(size);
+        if (cursor == null) {
+            return toRowPage(withArchivedRows(orderRepository.findFirstRowPageByCustomerEmail(email, limit), limit,
+                    () -> archivedOrderRepository.findFirstRowPageByCustomerEmail(email, limit)), limit, withItems);
         }
+        OrderCursor after = OrderCursor.decode(cursor);
+        return toRowPage(withArchivedRows(
+                orderRepository.findRowPageByCustomerEmailAfter(email, after.orderDate(), after.id(), limit), limit,
+                () -> archivedOrderRepository.findRowPageByCustomerEmailAfter(email, after.orderDate(), after.id(), limit)),
+                limit, withItems);
+    }
 
-        if (old == OrderStatus.CONFIRMED && newStatus == OrderStatus.CANCELLED) {
-            for (OrderItem oi : order.getOrderItems()) {
-                Product p = productRepository.findById(oi.getProduct().getId()).orElseThrow(() -> new ProductNotFoundException(oi.getProduct().getId()));
-                p.setStock(p.getStock() + oi.getQuantity());
-                productRepository.save(p);
-            }
-            order.setStatus(OrderStatus.CANCELLED);
-            return orderRepository.save(order);
+    private OrderRowPage toRowPage(List<OrderRow> rows, Limit limit, boolean withItems) {
+        int pageSize = limit.max() - 1;
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+        if (page.isEmpty()) {
+            return new OrderRowPage(List.of(), Map.of(), null);
         }
 
-        if (old == OrderStatus.CONFIRMED && newStatus == OrderStatus.SHIPPED) {
-            order.setStatus(OrderStatus.SHIPPED);
-            return orderRepository.save(order);
+        Map<Long, List<OrderItemRow>> items = Map.of();
+        if (withItems) {
+            List<Long> ids = page.stream().map(OrderRow::id).toList();
+            items = orderItemRepository.findRowsByOrderIdIn(ids).stream()
+                    .collect(Collectors.groupingBy(OrderItemRow::orderId));
+            // every order has lines, so ids without hot lines are archived orders
+            Set<Long> found = items.keySet();
+            List<Long> archivedIds = ids.stream().filter(id -> !found.contains(id)).toList();
+            if (!archivedIds.isEmpty()) {
+                items = new HashMap<>(items);
+                items.putAll(archivedOrderItemRepository.findRowsByOrderIdIn(archivedIds).stream()
+                        .collect(Collectors.groupingBy(OrderItemRow::orderId)));
+            }
         }
-        if (old == OrderStatus.SHIPPED && newStatus == OrderStatus.DELIVERED) {
-            order.setStatus(OrderStatus.DELIVERED);
-            return orderRepository.save(order);
+
+        String next = hasMore ? OrderCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new OrderRowPage(page, items, next);
+    }
+
+    public Order changeStatus(Long orderId, OrderStatus newStatus) {
+        Timer.Sample sample = orderMetrics.start();
+        AtomicReference<OrderStatus> old = new AtomicReference<>();
+        try {
+            Order changed = withRetry("status_change", orderId, () -> {
+                Order order = getOrder(orderId);
+                old.set(order.getStatus());
+                if (order.getStatus() == newStatus) {
+                    return order;
+                }
+                return transition(order, newStatus, OrderStateMachine.transition(order.getStatus(), newStatus));
+            });
+            orderMetrics.statusChanged(sample, old.get(), newStatus, null);
+            return changed;
+        } catch (RuntimeException ex) {
+            orderMetrics.statusChanged(sample, old.get(), newStatus, ex);
+            throw ex;
         }
-        if (old == OrderStatus.PENDING && newStatus == OrderStatus.CANCELLED) {
-            order.setStatus(OrderStatus.CANCELLED);
-            return orderRepository.save(order);
+    }
+
+    public void cancelOrder(Long id) {
+        Timer.Sample sample = orderMetrics.start();
+        AtomicReference<OrderStatus> old = new AtomicReference<>();
+        try {
+            withRetry("cancel", id, () -> {
+                Order order = getOrder(id);
+                old.set(order.getStatus());
+                StockEffect effect = OrderStateMachine.cancellation(order.getStatus());
+                return effect == null ? order : transition(order, OrderStatus.CANCELLED, effect);
+            });
+            orderMetrics.orderCancelled(sample, old.get(), null);
+        } catch (RuntimeException ex) {
+            orderMetrics.orderCancelled(sample, old.get(), ex);
+            throw ex;
         }
+    }
 
-        throw new InvalidOrderStatusException("Unsupported status transition from " + old + " to " + newStatus);
+    // Each attempt runs in its own transaction on a freshly read order. A concurrent writer
+    // makes the version check fail at flush, which rolls back everything the attempt did,
+    // stock included, before the next attempt starts over.
+    private Order withRetry(String operation, Long orderId, Supplier<Order> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return transitionTx.execute(s -> attempt.get());
+            } catch (OptimisticLockingFailureException ex) {
+                boolean retry = i < maxTransitionAttempts;
+                orderMetrics.transitionConflict(operation, retry);
+                if (!retry) {
+                    throw new OrderConflictException(orderId, i);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Order {} changed concurrently, retrying {} (attempt {})", orderId, operation, i + 1);
+                }
+            }
+        }
     }
 
-    @Transactional
-    public void cancelOrder(Long id) {
-        Order order = getOrder(id);
-        if (order.getStatus() == OrderStatus.CANCELLED) return;
-        if (order.getStatus() == OrderStatus.CONFIRMED) {
-            for (OrderItem oi : order.getOrderItems()) {
-                Product p = productRepository.findById(oi.getProduct().getId())
-                        .orElseThrow(() -> new ProductNotFoundException(oi.getProduct().getId()));
-                p.setStock(p.getStock() + oi.getQuantity());
-                productRepository.save(p);
+    private Order transition(Order order, OrderStatus newStatus, StockEffect effect) {
+        if (order.isArchived()) {
+            throw new InvalidOrderStatusException("Order " + order.getId() + " is archived and can no longer change status");
+        }
+        OrderStatus old = order.getStatus();
+        if (effect != StockEffect.NONE) {
+            SortedMap<Long, Integer> quantities = quantitiesByProduct(order);
+            if (effect == StockEffect.RESERVE) {
+                stockLedger.reserve(quantities);
+            } else {
+                stockLedger.release(quantities);
             }
+            productCache.invalidateAfterCommit(quantities.keySet());
+        }
+        order.setStatus(newStatus);
+        // flushed here so the version check runs now and the outbox event gets the new version
+        Order saved = orderRepository.saveAndFlush(order);
+        salesAggregates.statusChanged(saved, old);
+        orderOutbox.statusChanged(saved, old);
+        return saved;
+    }
+
+    private SortedMap<Long, Integer> quantitiesByProduct(Order order) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem oi : order.getOrderItems()) {
+            quantities.merge(oi.getProduct().getId(), oi.getQuantity(), Integer::sum);
         }
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        return quantities;
     }
 }
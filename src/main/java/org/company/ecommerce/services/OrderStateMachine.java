@@ -0,0 +1,63 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.exceptions.InvalidOrderStatusException;
+import org.company.ecommerce.models.OrderStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.company.ecommerce.models.OrderStatus.*;
+
+/**
+ * Allowed order status transitions and what each one does to stock. {@code changeStatus}
+ * follows the transition table; {@code cancelOrder} may cancel any order that is not cancelled yet.
+ */
+public final class OrderStateMachine {
+
+    public enum StockEffect { NONE, RESERVE, RELEASE }
+
+    private static final Map<OrderStatus, Map<OrderStatus, StockEffect>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, StockEffect> CANCELLATIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(PENDING, CONFIRMED, StockEffect.RESERVE);
+        allow(PENDING, CANCELLED, StockEffect.NONE);
+        allow(CONFIRMED, SHIPPED, StockEffect.NONE);
+        allow(CONFIRMED, CANCELLED, StockEffect.RELEASE);
+        allow(SHIPPED, DELIVERED, StockEffect.NONE);
+
+        // shipped and delivered goods have left the warehouse, so cancelling does not restock them
+        CANCELLATIONS.put(PENDING, StockEffect.NONE);
+        CANCELLATIONS.put(CONFIRMED, StockEffect.RELEASE);
+        CANCELLATIONS.put(SHIPPED, StockEffect.NONE);
+        CANCELLATIONS.put(DELIVERED, StockEffect.NONE);
+    }
+
+    private OrderStateMachine() {
+    }
+
+    private static void allow(OrderStatus from, OrderStatus to, StockEffect effect) {
+        TRANSITIONS.computeIfAbsent(from, s -> new EnumMap<>(OrderStatus.class)).put(to, effect);
+    }
+
+    public static boolean isFinal(OrderStatus status) {
+        return !TRANSITIONS.containsKey(status);
+    }
+
+    // same-status requests are accepted as no-ops and never reach this method
+    public static StockEffect transition(OrderStatus from, OrderStatus to) {
+        if (isFinal(from)) {
+            throw new InvalidOrderStatusException("Cannot change status from " + from);
+        }
+        StockEffect effect = TRANSITIONS.get(from).get(to);
+        if (effect == null) {
+            throw new InvalidOrderStatusException("Unsupported status transition from " + from + " to " + to);
+        }
+        return effect;
+    }
+
+    // null when the order is already cancelled
+    public static StockEffect cancellation(OrderStatus from) {
+        return CANCELLATIONS.get(from);
+    }
+}
@@ -0,0 +1,137 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.dto.OrderEvent;
+import org.company.ecommerce.models.OutboxEvent;
+import org.company.ecommerce.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to the configured {@link OrderEventSink}. Events are read and
+ * delivered in (order id, seq) order and deleted in the same transaction once the sink accepts them;
+ * a failing or full sink leaves them in place and the dispatcher backs off exponentially,
+ * so the outbox table absorbs the backlog instead of the request path. Run it on one node
+ * only ({@code outbox.dispatcher.enabled}), otherwise events would be delivered twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderEventSink sink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${outbox.max-backoff:30s}")
+    private Duration maxBackoff;
+
+    private TransactionTemplate tx;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private Counter published;
+    private Counter failures;
+    private Timer batchTimer;
+
+    private int consecutiveFailures;
+    private long retryAt;
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+        published = meterRegistry.counter("outbox.published");
+        failures = meterRegistry.counter("outbox.failures");
+        batchTimer = Timer.builder("outbox.batch")
+                .description("Time to read, publish and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, v -> v.get() / 1000.0)
+                .description("Age in seconds of the oldest undelivered order event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Undelivered order events as of the last dispatch run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:200}", initialDelayString = "${outbox.poll-interval-ms:200}")
+    public void dispatch() {
+        if (System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer sent = batchTimer.record(() -> tx.execute(s -> dispatchBatch()));
+            if (sent == null || sent < batchSize) {
+                return;
+            }
+        }
+        // still behind after the per-run cap; give the next run a fresh count
+        pending.set(outboxEventRepository.count());
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            pending.set(0);
+            return 0;
+        }
+        LocalDateTime oldest = batch.stream().map(OutboxEvent::getOccurredAt).min(Comparator.naturalOrder()).orElseThrow();
+        lagMillis.set(Duration.between(oldest, LocalDateTime.now()).toMillis());
+        try {
+            sink.publish(batch.stream().map(OrderEvent::of).toList());
+        } catch (Exception ex) {
+            backOff(batch.size(), ex);
+            return 0;
+        }
+        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+        published.increment(batch.size());
+        consecutiveFailures = 0;
+        if (batch.size() < batchSize) {
+            pending.set(0);
+        }
+        return batch.size();
+    }
+
+    private void backOff(int size, Exception ex) {
+        failures.increment();
+        consecutiveFailures++;
+        long delay = Math.min(maxBackoff.toMillis(), pollIntervalMs << Math.min(consecutiveFailures, 20));
+        retryAt = System.currentTimeMillis() + delay;
+        pending.set(Math.max(pending.get(), size));
+        log.warn("Publishing {} order events failed, retrying in {} ms: {}", size, delay, ex.getMessage());
+    }
+}
@@ -0,0 +1,111 @@
+package org.company.ecommerce.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.company.ecommerce.models.ProductSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product snapshots for catalog reads. Entries expire after
+ * {@code catalog.cache.ttl} and are invalidated whenever a product is written, but the
+ * cached stock is never used to accept or confirm an order.
+ *
+ * <p>Loads run on the calling thread outside any map lock. A plain {@code Cache.get} runs the
+ * loader inside {@code ConcurrentHashMap.compute}, which holds a monitor for the whole JDBC
+ * round trip and pins the carrier when the caller is a virtual thread. Concurrent misses for
+ * the same id still wait on the first caller's future instead of querying again, through
+ * {@link SingleFlight} so the wait is bounded and counted; in-flight loads are shared even with
+ * a zero TTL.
+ */
+@Component
+public class ProductCache {
+
+    @Value("${catalog.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${catalog.cache.ttl:60s}")
+    private Duration ttl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    private AsyncCache<Long, ProductSnapshot> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductSnapshot get(Long id, Function<Long, ProductSnapshot> loader) {
+        CompletableFuture<ProductSnapshot> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.isDone() ? await(cached) : singleFlight.join("get", cached, () -> loader.apply(id));
+        }
+        CompletableFuture<ProductSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<ProductSnapshot> existing = cache.asMap().putIfAbsent(id, mine);
+        if (existing != null) {
+            return singleFlight.join("get", existing, () -> loader.apply(id));
+        }
+        singleFlight.count("get", "leader");
+        try {
+            mine.complete(loader.apply(id));
+        } catch (RuntimeException ex) {
+            // failed futures are dropped by the cache, so the next call retries the load
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+        return mine.join();
+    }
+
+    private static ProductSnapshot await(CompletableFuture<ProductSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    // invalidating before commit would let a concurrent read re-cache the old row
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidateAll(ids);
+            return;
+        }
+        List<Long> keys = List.copyOf(ids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidateAll(keys);
+            }
+        });
+    }
+}
@@ -1,15 +1,22 @@
 package org.company.ecommerce.services;
 
-import org.company.ecommerce.dto.ProductResponse;
 import org.company.ecommerce.models.Product;
+import org.company.ecommerce.models.ProductSnapshot;
 import org.company.ecommerce.repository.ProductRepository;
 import org.company.ecommerce.exceptions.ProductNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @Service
@@ -18,12 +25,39 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTx;
+
+    @PostConstruct
+    void init() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    // Catalog listings are coalesced before a transaction starts, so waiting callers hold no
+    // connection; the page comes back detached and is shared read-only between them.
     public Page<Product> listAll(int page, int size) {
         Pageable p = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return productRepository.findByIsActiveTrue(p);
+        return singleFlight.execute("list", () -> readOnlyTx.execute(s -> productRepository.findByIsActiveTrue(p)),
+                page, size);
     }
 
-    public Product get(Long id) {
+    public ProductSnapshot get(Long id) {
+        return productCache.get(id, key -> ProductSnapshot.of(find(key)));
+    }
+
+    private Product find(Long id) {
         return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
     }
 
@@ -32,34 +66,65 @@ public class ProductService {
         product.setCreatedAt(LocalDateTime.now());
         if (product.getIsActive() == null) product.setIsActive(true);
         Product saved = productRepository.save(product);
+        productCache.invalidate(saved.getId());
         log.debug("Product created with ID: {}", saved.getId());
         return saved;
     }
 
+    // read and write in one read-write transaction, so the row being changed comes from the primary
+    @Transactional
     public Product update(Long id, Product update) {
-        Product p = get(id);
+        Product p = find(id);
         p.setName(update.getName());
         p.setPrice(update.getPrice());
         p.setStock(update.getStock());
         p.setCategory(update.getCategory());
         p.setIsActive(update.getIsActive());
         p.setUpdatedAt(LocalDateTime.now());
-        return productRepository.save(p);
+        Product saved = productRepository.save(p);
+        stockLedger.evict(id);
+        productCache.invalidateAfterCommit(List.of(id));
+        return saved;
     }
 
+    @Transactional
     public void delete(Long id) {
-        Product p = get(id);
+        Product p = find(id);
         log.warn("Deactivating product with ID: {}", id);
         p.setIsActive(false);
         p.setDeletedAt(LocalDateTime.now());
+        p.setUpdatedAt(p.getDeletedAt());
         productRepository.save(p);
+        productCache.invalidateAfterCommit(List.of(id));
         log.info("Product {} marked as deleted", id);
     }
 
     public Page<Product> search(String name, String category, int page, int size) {
+        return singleFlight.execute("search", () -> readOnlyTx.execute(s -> searchPage(name, category, page, size)),
+                name, category, page, size);
+    }
+
+    private Page<Product> searchPage(String name, String category, int page, int size) {
         Pageable p = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        if (name == null) name = "";
-        if (category == null) category = "";
-        return productRepository.findByNameContainingIgnoreCaseAndCategoryContainingIgnoreCase(name, category, p);
+        boolean byName = StringUtils.hasText(name);
+        boolean byCategory = StringUtils.hasText(category);
+        if (byName && byCategory) {
+            return productRepository.searchByNameAndCategory(likePattern(name), category, p);
+        }
+        if (byName) {
+            return productRepository.searchByName(likePattern(name), p);
+        }
+        if (byCategory) {
+            return productRepository.findByCategory(category, p);
+        }
+        return productRepository.findAll(p);
+    }
+
+    private static String likePattern(String term) {
+        String escaped = term.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 }
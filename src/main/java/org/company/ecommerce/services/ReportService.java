@@ -0,0 +1,85 @@
+package org.company.ecommerce.services;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.dto.CategorySalesReport;
+import org.company.ecommerce.dto.DailyRevenueReport;
+import org.company.ecommerce.dto.LowStockProduct;
+import org.company.ecommerce.dto.ProductSalesReport;
+import org.company.ecommerce.exceptions.InvalidReportRangeException;
+import org.company.ecommerce.repository.CategorySalesRepository;
+import org.company.ecommerce.repository.DailyRevenueRepository;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.repository.ProductSalesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Reads only the aggregate tables maintained by SalesAggregates, never orders or order_item.
+@Slf4j
+@Service
+public class ReportService {
+
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+
+    @Autowired
+    private CategorySalesRepository categorySalesRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SalesAggregates salesAggregates;
+
+    @Value("${reports.max-days:366}")
+    private int maxDays;
+
+    @Value("${reports.max-rows:100}")
+    private int maxRows;
+
+    public List<DailyRevenueReport> dailyRevenue(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return dailyRevenueRepository.report(from, to);
+    }
+
+    public List<CategorySalesReport> categorySales(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return categorySalesRepository.report(from, to);
+    }
+
+    public List<ProductSalesReport> topProducts(int limit) {
+        return productSalesRepository.topSellers(rows(limit));
+    }
+
+    public List<LowStockProduct> lowStock(int threshold, int limit) {
+        return productRepository.findLowStock(threshold, rows(limit));
+    }
+
+    @Transactional
+    public void rebuild() {
+        log.info("Rebuilding sales aggregates from orders");
+        salesAggregates.rebuild();
+    }
+
+    private Limit rows(int limit) {
+        return Limit.of(Math.max(1, Math.min(limit, maxRows)));
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidReportRangeException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidReportRangeException("Report range is limited to " + maxDays + " days");
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderItem;
+import org.company.ecommerce.models.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Keeps daily_revenue, category_sales and product_sales in step with order writes by applying
+ * deltas inside the caller's transaction. Writers pick one of {@code reports.aggregate.slots}
+ * rows per key so concurrent orders for the same day do not all queue on one row lock; keys
+ * are sorted and the tables are always touched in the same order, so two writers cannot
+ * deadlock on each other. Units and revenue per product/category count orders whose stock is
+ * reserved (CONFIRMED, SHIPPED, DELIVERED), under the category each line was sold in.
+ */
+@Component
+public class SalesAggregates {
+
+    private static final Set<OrderStatus> SOLD = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    private static final String NO_CATEGORY = "uncategorized";
+
+    private static final String REVENUE_UPDATE = "update daily_revenue set order_count = order_count + ?, revenue = revenue + ? "
+            + "where sales_date = ? and status = ? and slot = ?";
+    private static final String REVENUE_INSERT = "insert into daily_revenue (sales_date, status, slot, order_count, revenue) "
+            + "values (?, ?, ?, 0, 0) on conflict do nothing";
+    private static final String CATEGORY_UPDATE = "update category_sales set units_sold = units_sold + ?, revenue = revenue + ? "
+            + "where sales_date = ? and category = ? and slot = ?";
+    private static final String CATEGORY_INSERT = "insert into category_sales (sales_date, category, slot, units_sold, revenue) "
+            + "values (?, ?, ?, 0, 0) on conflict do nothing";
+    private static final String PRODUCT_UPDATE = "update product_sales set units_sold = units_sold + ?, revenue = revenue + ? "
+            + "where product_id = ? and slot = ?";
+    private static final String PRODUCT_INSERT = "insert into product_sales (product_id, slot, units_sold, revenue) "
+            + "values (?, ?, 0, 0) on conflict do nothing";
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<List<Comparable<?>>> KEY_ORDER = (a, b) -> {
+        for (int i = 0; i < a.size(); i++) {
+            int c = ((Comparable) a.get(i)).compareTo(b.get(i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${reports.aggregate.slots:8}")
+    private int slots;
+
+    @Value("${reports.rebuild.lock-tables:true}")
+    private boolean lockTables;
+
+    public void ordersCreated(Collection<Order> orders) {
+        int slot = slot();
+        SortedMap<List<Comparable<?>>, Delta> revenue = new TreeMap<>(KEY_ORDER);
+        for (Order order : orders) {
+            revenue.computeIfAbsent(List.of(day(order), order.getStatus().name()), k -> new Delta())
+                    .add(1, order.getTotalAmount());
+        }
+        apply(REVENUE_UPDATE, REVENUE_INSERT, revenue, slot);
+    }
+
+    public void statusChanged(Order order, OrderStatus from) {
+        OrderStatus to = order.getStatus();
+        if (from == to) {
+            return;
+        }
+        int slot = slot();
+        LocalDate day = day(order);
+        SortedMap<List<Comparable<?>>, Delta> revenue = new TreeMap<>(KEY_ORDER);
+        revenue.put(List.of(day, from.name()), new Delta().add(-1, order.getTotalAmount().negate()));
+        revenue.put(List.of(day, to.name()), new Delta().add(1, order.getTotalAmount()));
+        apply(REVENUE_UPDATE, REVENUE_INSERT, revenue, slot);
+
+        boolean wasSold = SOLD.contains(from);
+        if (wasSold == SOLD.contains(to)) {
+            return;
+        }
+        int sign = wasSold ? -1 : 1;
+        SortedMap<List<Comparable<?>>, Delta> byCategory = new TreeMap<>(KEY_ORDER);
+        SortedMap<List<Comparable<?>>, Delta> byProduct = new TreeMap<>(KEY_ORDER);
+        for (OrderItem item : order.getOrderItems()) {
+            Long productId = item.getProduct().getId();
+            long units = (long) sign * item.getQuantity();
+            BigDecimal amount = sign > 0 ? item.getTotalPrice() : item.getTotalPrice().negate();
+            byCategory.computeIfAbsent(List.of(day, category(item)), k -> new Delta())
+                    .add(units, amount);
+            byProduct.computeIfAbsent(List.of(productId), k -> new Delta()).add(units, amount);
+        }
+        apply(CATEGORY_UPDATE, CATEGORY_INSERT, byCategory, slot);
+        apply(PRODUCT_UPDATE, PRODUCT_INSERT, byProduct, slot);
+    }
+
+    // Drops and recomputes all aggregates from orders, hot and archived; meant for backfill and
+    // repair. Writers apply their deltas in the order's own transaction, so while the tables
+    // are locked an order is either in the snapshot read below or adds its delta after the
+    // rebuild commits. Without reports.rebuild.lock-tables (H2 has no LOCK TABLE), run it
+    // while order writes are paused. Lines count under the category they were sold in.
+    public void rebuild() {
+        if (lockTables) {
+            jdbcTemplate.execute("lock table daily_revenue, category_sales, product_sales in exclusive mode");
+        }
+        String sold = "('CONFIRMED', 'SHIPPED', 'DELIVERED')";
+        String orders = "(select order_date, status, total_amount from orders "
+                + "union all select order_date, status, total_amount from orders_archive) o";
+        String soldLines = "(select o.order_date, oi.product_id, oi.category, oi.quantity, oi.total_price "
+                + "from order_item oi join orders o on o.id = oi.order_id where o.status in " + sold + " "
+                + "union all select a.order_date, a.product_id, a.category, a.quantity, a.total_price "
+                + "from order_item_archive a join orders_archive o on o.id = a.order_id where o.status in " + sold + ") l";
+        jdbcTemplate.update("delete from daily_revenue");
+        jdbcTemplate.update("insert into daily_revenue (sales_date, status, slot, order_count, revenue) "
+                + "select cast(o.order_date as date), o.status, 0, count(*), coalesce(sum(o.total_amount), 0) "
+                + "from " + orders + " group by cast(o.order_date as date), o.status");
+        jdbcTemplate.update("delete from category_sales");
+        jdbcTemplate.update("insert into category_sales (sales_date, category, slot, units_sold, revenue) "
+                + "select cast(l.order_date as date), coalesce(l.category, '" + NO_CATEGORY + "'), 0, sum(l.quantity), sum(l.total_price) "
+                + "from " + soldLines + " group by cast(l.order_date as date), coalesce(l.category, '" + NO_CATEGORY + "')");
+        jdbcTemplate.update("delete from product_sales");
+        jdbcTemplate.update("insert into product_sales (product_id, slot, units_sold, revenue) "
+                + "select l.product_id, 0, sum(l.quantity), sum(l.total_price) "
+                + "from " + soldLines + " where l.product_id is not null group by l.product_id");
+    }
+
+    // One batched UPDATE per table; keys whose row does not exist yet are inserted as zero
+    // rows (ignoring a concurrent insert of the same key) and updated again.
+    private void apply(String update, String insert, SortedMap<List<Comparable<?>>, Delta> deltas, int slot) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<List<Comparable<?>>> keys = new ArrayList<>(deltas.keySet());
+        List<Object[]> updates = new ArrayList<>(keys.size());
+        for (List<Comparable<?>> key : keys) {
+            Delta d = deltas.get(key);
+            updates.add(row(new Object[]{d.count, d.amount}, key, slot));
+        }
+        int[] counts = jdbcTemplate.batchUpdate(update, updates);
+
+        List<Object[]> missingKeys = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missingKeys.add(row(new Object[0], keys.get(i), slot));
+                retries.add(updates.get(i));
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            jdbcTemplate.batchUpdate(insert, missingKeys);
+            jdbcTemplate.batchUpdate(update, retries);
+        }
+    }
+
+    private static Object[] row(Object[] head, List<Comparable<?>> key, int slot) {
+        Object[] args = Arrays.copyOf(head, head.length + key.size() + 1);
+        for (int i = 0; i < key.size(); i++) {
+            args[head.length + i] = key.get(i);
+        }
+        args[args.length - 1] = slot;
+        return args;
+    }
+
+    // the same thread keeps hitting the same slot, concurrent threads spread across them
+    private int slot() {
+        return (int) (Thread.currentThread().getId() % slots);
+    }
+
+    // the category the line was sold in; recategorising the product later does not move it
+    private static String category(OrderItem item) {
+        return item.getCategory() != null ? item.getCategory() : NO_CATEGORY;
+    }
+
+    private static LocalDate day(Order order) {
+        return order.getOrderDate().toLocalDate();
+    }
+
+    private static final class Delta {
+        long count;
+        BigDecimal amount = BigDecimal.ZERO;
+
+        Delta add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+            return this;
+        }
+    }
+}
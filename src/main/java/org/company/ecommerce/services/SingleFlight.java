@@ -0,0 +1,98 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.company.ecommerce.config.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical catalog reads. The first caller for a key runs the load on its
+ * own thread; callers arriving while it is in flight wait for that result instead of querying
+ * again. Nothing is kept once the load finishes, so unlike {@link ProductCache} it also helps
+ * when results must not be reused at all.
+ *
+ * <p>A caller waits at most {@code catalog.single-flight.timeout} for someone else's load and
+ * then runs its own, so one stuck query cannot hold every request for the key. Requests that
+ * have written are pinned to the primary and always load for themselves; a result read from a
+ * replica might not contain their write. Outcomes are counted in {@code catalog.single-flight}
+ * by {@code operation} and {@code outcome} ({@code leader}, {@code coalesced}, {@code timeout}).
+ */
+@Component
+public class SingleFlight {
+
+    @Value("${catalog.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.single-flight.timeout:2s}")
+    private Duration timeout;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // key parts may be null (an absent search term); they are compared by value
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> load, Object... key) {
+        if (!enabled || ReadYourWrites.pinned()) {
+            return load.get();
+        }
+        List<Object> flightKey = Arrays.asList(prepend(operation, key));
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, mine);
+        if (existing != null) {
+            return join(operation, (CompletableFuture<T>) existing, load);
+        }
+        count(operation, "leader");
+        try {
+            T value = load.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    // Waits for a load another caller started, e.g. one of ProductCache's in-flight futures.
+    // The leader's failure is rethrown as is; after the timeout the caller loads on its own.
+    <T> T join(String operation, CompletableFuture<T> leader, Supplier<T> load) {
+        try {
+            T value = leader.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            count(operation, "coalesced");
+            return value;
+        } catch (TimeoutException ex) {
+            count(operation, "timeout");
+            return load.get();
+        } catch (ExecutionException ex) {
+            count(operation, "coalesced");
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a concurrent " + operation);
+        }
+    }
+
+    void count(String operation, String outcome) {
+        meterRegistry.counter("catalog.single-flight", "operation", operation, "outcome", outcome).increment();
+    }
+
+    private static Object[] prepend(String operation, Object[] key) {
+        Object[] parts = new Object[key.length + 1];
+        parts[0] = operation;
+        System.arraycopy(key, 0, parts, 1, key.length);
+        return parts;
+    }
+}
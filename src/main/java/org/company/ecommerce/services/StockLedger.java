@@ -0,0 +1,15 @@
+package org.company.ecommerce.services;
+
+import java.util.SortedMap;
+
+// Quantities are keyed by product id and applied in ascending id order.
+public interface StockLedger {
+
+    void reserve(SortedMap<Long, Integer> quantities);
+
+    void release(SortedMap<Long, Integer> quantities);
+
+    // called after the product's stock column was overwritten outside the ledger
+    default void evict(Long productId) {
+    }
+}
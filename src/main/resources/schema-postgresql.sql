@@ -0,0 +1,38 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product USING gin (lower(name) gin_trgm_ops);
+
+-- The order archive is range-partitioned by month of order_date, so old months can be detached
+-- or moved to cheaper storage as a whole. Hibernate's plain tables are replaced here (they are
+-- empty at this point); OrderArchiver creates the monthly partitions it needs.
+DROP TABLE IF EXISTS order_item_archive;
+DROP TABLE IF EXISTS orders_archive;
+
+CREATE TABLE orders_archive (
+    id             bigint         NOT NULL,
+    customer_name  varchar(255)   NOT NULL,
+    customer_email varchar(255)   NOT NULL,
+    order_date     timestamp(6)   NOT NULL,
+    status         varchar(255),
+    total_amount   numeric(15, 2),
+    archived_at    timestamp(6),
+    PRIMARY KEY (id, order_date)
+) PARTITION BY RANGE (order_date);
+
+CREATE INDEX idx_orders_archive_customer_date_id ON orders_archive (customer_email, order_date, id);
+CREATE INDEX idx_orders_archive_date_id ON orders_archive (order_date, id);
+
+CREATE TABLE order_item_archive (
+    id           bigint         NOT NULL,
+    order_id     bigint         NOT NULL,
+    order_date   timestamp(6)   NOT NULL,
+    product_id   bigint,
+    product_name varchar(255),
+    category     varchar(255),
+    quantity     integer,
+    unit_price   numeric(15, 2),
+    total_price  numeric(15, 2),
+    PRIMARY KEY (id, order_date)
+) PARTITION BY RANGE (order_date);
+
+CREATE INDEX idx_order_item_archive_order_id ON order_item_archive (order_id);
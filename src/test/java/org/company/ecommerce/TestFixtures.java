@@ -0,0 +1,56 @@
+package org.company.ecommerce;
+
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.models.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Products and order requests shared by the integration tests; products are returned unsaved.
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static Product product(String name, String category, BigDecimal price, int stock) {
+        Product p = new Product();
+        p.setName(name);
+        p.setPrice(price);
+        p.setStock(stock);
+        p.setCategory(category);
+        p.setIsActive(true);
+        p.setCreatedAt(LocalDateTime.now());
+        return p;
+    }
+
+    public static CreateOrderRequest.OrderItemRequest line(Product product, int quantity) {
+        CreateOrderRequest.OrderItemRequest line = new CreateOrderRequest.OrderItemRequest();
+        line.setProductId(product.getId());
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    // one line of the given quantity per product
+    public static List<CreateOrderRequest.OrderItemRequest> lines(List<Product> products, int quantity) {
+        List<CreateOrderRequest.OrderItemRequest> lines = new ArrayList<>(products.size());
+        for (Product p : products) {
+            lines.add(line(p, quantity));
+        }
+        return lines;
+    }
+
+    public static CreateOrderRequest orderRequest(String customer, String email,
+                                                  List<CreateOrderRequest.OrderItemRequest> lines) {
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setCustomerName(customer);
+        req.setCustomerEmail(email);
+        req.setItems(lines);
+        return req;
+    }
+
+    public static CreateOrderRequest orderRequest(String customer, String email, Product product, int quantity) {
+        return orderRequest(customer, email, List.of(line(product, quantity)));
+    }
+}
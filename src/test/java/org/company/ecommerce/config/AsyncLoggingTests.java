@@ -0,0 +1,100 @@
+package org.company.ecommerce.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncLoggingTests {
+
+    private static LoggerContext context() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        return context;
+    }
+
+    @Test
+    void asyncAppenderDropsInsteadOfBlockingAndCountsDrops() {
+        LoggerContext context = context();
+        AtomicInteger delivered = new AtomicInteger();
+        // a console that cannot keep up
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                LockSupport.parkNanos(1_000_000);
+                delivered.incrementAndGet();
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+
+        CountingAsyncAppender async = new CountingAsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(16);
+        async.setDiscardingThreshold(8);
+        async.setNeverBlock(true);
+        async.addAppender(slow);
+        async.start();
+
+        Logger logger = context.getLogger("hot.path");
+        logger.addAppender(async);
+        long start = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            logger.info("order {} created", i);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        async.stop();
+
+        // 500 events at 1 ms each would take half a second if the caller waited for the console
+        assertThat(elapsedMillis).isLessThan(250);
+        assertThat(async.dropped()).isPositive();
+        assertThat(delivered.get() + async.dropped()).isEqualTo(500);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        async.bindTo(registry);
+        assertThat(registry.get("logging.events.dropped").tag("reason", "discarded").functionCounter().count())
+                .isEqualTo(async.dropped());
+    }
+
+    @Test
+    void slowQueryLogIsCappedPerSecondButFullyCounted() {
+        LoggerContext context = context();
+        SlowQuerySampler sampler = new SlowQuerySampler();
+        sampler.setContext(context);
+        sampler.setMaxPerSecond(5);
+        sampler.start();
+        context.addTurboFilter(sampler);
+
+        ListAppender<ILoggingEvent> out = new ListAppender<>();
+        out.setContext(context);
+        out.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(out);
+
+        Logger slowQueries = context.getLogger(SlowQuerySampler.SLOW_QUERY_LOGGER);
+        for (int i = 0; i < 100; i++) {
+            if (slowQueries.isInfoEnabled()) {
+                slowQueries.info("Slow query took 250 milliseconds [select " + i + "]");
+            }
+        }
+        context.getLogger("other").info("not sampled");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        sampler.bindTo(registry);
+        double logged = registry.get("db.query.slow").tag("outcome", "logged").functionCounter().count();
+        double suppressed = registry.get("db.query.slow").tag("outcome", "sampled_out").functionCounter().count();
+
+        assertThat(logged).isBetween(5.0, 7.0);
+        assertThat(logged + suppressed).isEqualTo(100);
+        assertThat(out.list).hasSize((int) logged + 1);
+    }
+}
@@ -0,0 +1,122 @@
+package org.company.ecommerce.controllers;
+
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.metrics.StatementCounter;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.services.OrderService;
+import org.company.ecommerce.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void unchangedProductIsNotSentAgain() throws Exception {
+        Product product = productService.create(product("Conditional SKU", 10));
+        String etag = etagOf("/api/products/" + product.getId());
+
+        mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        productService.update(product.getId(), product("Renamed SKU", 10));
+        mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void productListingChangesWithTheCatalog() throws Exception {
+        productService.create(product("Listed SKU", 10));
+        String etag = etagOf("/api/products");
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        productService.create(product("Another listed SKU", 10));
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unchangedOrderIsAnsweredFromItsVersion() throws Exception {
+        Product product = productService.create(product("Order SKU", 10));
+        Order order = orderService.createOrder(orderRequest(product));
+        String etag = etagOf("/api/orders/" + order.getId());
+
+        StatementCounter.reset();
+        mockMvc.perform(get("/api/orders/{id}", order.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // only the version lookup, no order or item load
+        assertThat(StatementCounter.current()).isEqualTo(1);
+
+        orderService.changeStatus(order.getId(), OrderStatus.CONFIRMED);
+        // only the tag of the order rendered, set once
+        assertThat(mockMvc.perform(get("/api/orders/{id}", order.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeaders(HttpHeaders.ETAG))
+                .singleElement().isNotEqualTo(etag);
+    }
+
+    @Test
+    void renamingAProductLeavesItsOrdersUnchanged() throws Exception {
+        Product product = productService.create(product("Ordered SKU", 10));
+        Order order = orderService.createOrder(orderRequest(product));
+        String etag = etagOf("/api/orders/" + order.getId());
+
+        productService.update(product.getId(), product("Renamed ordered SKU", 10));
+
+        mockMvc.perform(get("/api/orders/{id}", order.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.items[0].productName").value("Ordered SKU"));
+    }
+
+    private String etagOf(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+
+    private static Product product(String name, int stock) {
+        return TestFixtures.product(name, "conditional", BigDecimal.TEN, stock);
+    }
+
+    private static CreateOrderRequest orderRequest(Product product) {
+        return TestFixtures.orderRequest("Conditional Customer", "conditional@example.com", product, 1);
+    }
+}
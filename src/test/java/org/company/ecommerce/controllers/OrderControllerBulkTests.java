@@ -0,0 +1,134 @@
+package org.company.ecommerce.controllers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.product;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "orders.bulk.max-size=4")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderControllerBulkTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(product("Bulk product", "bulk", new BigDecimal("12.50"), 1000));
+    }
+
+    @Test
+    void jsonArrayReportsPerOrderResults() throws Exception {
+        String body = "[" + order("a@example.com", product.getId(), 2) + ","
+                + order("b@example.com", 999_999L, 1) + ","
+                + order("not-an-email", product.getId(), 1) + ","
+                + order("c@example.com", product.getId(), 4) + "]";
+
+        mockMvc.perform(post("/api/orders/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].totalAmount").value(25.00))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("Product not found: 999999"))
+                .andExpect(jsonPath("$[2].status").value("FAILED"))
+                .andExpect(jsonPath("$[3].status").value("CREATED"))
+                .andExpect(jsonPath("$[3].orderId").isNumber());
+    }
+
+    @Test
+    void ndjsonStreamIsAccepted() throws Exception {
+        String body = order("d@example.com", product.getId(), 1) + "\n"
+                + order("e@example.com", product.getId(), 3) + "\n";
+
+        mockMvc.perform(post("/api/orders/bulk").contentType("application/x-ndjson").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+    }
+
+    @Test
+    void ndjsonStreamIsRejectedAtTheFirstLinePastTheLimit() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append(order("f" + i + "@example.com", product.getId(), 1)).append('\n');
+        }
+        // never parsed: reading stops at the fifth line
+        body.append("{not json\n");
+
+        mockMvc.perform(post("/api/orders/bulk").contentType("application/x-ndjson").content(body.toString()))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void jsonArrayIsRejectedAtTheFirstOrderPastTheLimit() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            body.append(order("g" + i + "@example.com", product.getId(), 1)).append(',');
+        }
+        // never parsed: reading stops at the fifth element
+        body.append("{not json]");
+
+        mockMvc.perform(post("/api/orders/bulk").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void bulkOrdersAreRecordedInOrderMetrics() throws Exception {
+        long calls = timerCount("orders.bulk.create", "outcome", "success");
+        double created = counter("orders.bulk.orders", "outcome", "created");
+        double failed = counter("orders.bulk.orders", "outcome", "failed");
+        long itemSamples = meterRegistry.get("orders.items").summary().count();
+        String body = "[" + order("h@example.com", product.getId(), 1) + ","
+                + order("i@example.com", 999_999L, 1) + "]";
+
+        mockMvc.perform(post("/api/orders/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        assertThat(timerCount("orders.bulk.create", "outcome", "success") - calls).isEqualTo(1);
+        assertThat(counter("orders.bulk.orders", "outcome", "created") - created).isEqualTo(1);
+        assertThat(counter("orders.bulk.orders", "outcome", "failed") - failed).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.items").summary().count() - itemSamples).isEqualTo(1);
+    }
+
+    private long timerCount(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double counter(String name, String... tags) {
+        Counter counter = meterRegistry.find(name).tags(tags).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static String order(String email, Long productId, int quantity) {
+        return "{\"customerName\":\"Bulk Buyer\",\"customerEmail\":\"" + email + "\","
+                + "\"items\":[{\"productId\":" + productId + ",\"quantity\":" + quantity + "}]}";
+    }
+}
@@ -0,0 +1,172 @@
+package org.company.ecommerce.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.OrderMapper;
+import org.company.ecommerce.dto.OrderResponse;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.OrderRepository;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.IdempotencyService;
+import org.company.ecommerce.services.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.company.ecommerce.TestFixtures.orderRequest;
+import static org.company.ecommerce.TestFixtures.product;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// runs against the database store so its insert/lookup SQL is exercised as well
+@SpringBootTest(properties = "idempotency.store=database")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderControllerIdempotencyTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(product("Idempotent product", "idempotency", new BigDecimal("5.00"), 100));
+    }
+
+    @Test
+    void retryReturnsTheOriginalOrder() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long before = orderRepository.count();
+
+        long first = create(key, order("retry@example.com", 2));
+        long second = create(key, order("retry@example.com", 2));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(orderRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void keyReusedForDifferentOrderIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        create(key, order("reuse@example.com", 1));
+
+        mockMvc.perform(post("/api/orders").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(order("reuse@example.com", 3)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneOrder() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = order("concurrent@example.com", 1);
+        long before = orderRepository.count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return create(key, body);
+            }));
+        }
+        start.countDown();
+        Set<Long> ids = new HashSet<>();
+        for (Future<Long> f : results) {
+            ids.add(f.get());
+        }
+        pool.shutdown();
+
+        assertThat(ids).hasSize(1);
+        assertThat(orderRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void keyIsClaimedBeforeTheOrderIsWritten() {
+        String key = UUID.randomUUID().toString();
+        CreateOrderRequest req = orderRequest("Claiming Client", "claim@example.com", product, 1);
+
+        OrderResponse response = idempotencyService.execute(key, req, () -> {
+            // same transaction as the order, so the uncommitted claim is visible here
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(*) from idempotency_keys where idempotency_key = ? and response is null",
+                    Long.class, key)).isEqualTo(1);
+            return OrderMapper.toResponse(orderService.createOrder(req));
+        });
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from idempotency_keys where idempotency_key = ? and response is not null",
+                Long.class, key)).isEqualTo(1);
+        assertThat(orderRepository.existsById(response.getId())).isTrue();
+    }
+
+    @Test
+    void failedCreationReleasesTheKey() {
+        String key = UUID.randomUUID().toString();
+        CreateOrderRequest req = orderRequest("Failing Client", "fail@example.com", product, 1);
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, req, () -> {
+            orderService.createOrder(req);
+            throw new IllegalStateException("response could not be built");
+        })).hasMessage("response could not be built");
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from idempotency_keys where idempotency_key = ?", Long.class, key)).isZero();
+        long before = orderRepository.count();
+        OrderResponse retried = idempotencyService.execute(key, req, () -> OrderMapper.toResponse(orderService.createOrder(req)));
+        assertThat(orderRepository.count()).isEqualTo(before + 1);
+        assertThat(orderRepository.existsById(retried.getId())).isTrue();
+    }
+
+    private long create(String key, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/orders").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private String order(String email, int quantity) {
+        return "{\"customerName\":\"Retrying Client\",\"customerEmail\":\"" + email + "\","
+                + "\"items\":[{\"productId\":" + product.getId() + ",\"quantity\":" + quantity + "}]}";
+    }
+}
@@ -0,0 +1,156 @@
+package org.company.ecommerce.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.metrics.StatementCounter;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.lines;
+import static org.company.ecommerce.TestFixtures.product;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderControllerListingTests {
+
+    private static final String EMAIL = "listing@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (orderService.findRowsByCustomerEmail(EMAIL, null, 1, false).orders().isEmpty()) {
+            List<Product> products = createProducts(3);
+            for (int i = 0; i < 5; i++) {
+                orderService.createOrder(orderRequest(products));
+            }
+        }
+    }
+
+    @Test
+    void listingAllOrdersUsesBoundedQueries() throws Exception {
+        StatementCounter.reset();
+
+        mockMvc.perform(get("/api/orders"))
+                .andExpect(status().isOk());
+
+        // one keyset projection for the page, one OrderItemRow projection for all of its lines
+        // (product names are stored on the lines, so product is never read)
+        assertThat(StatementCounter.current()).isEqualTo(2);
+    }
+
+    @Test
+    void listingCustomerOrdersUsesBoundedQueries() throws Exception {
+        StatementCounter.reset();
+
+        mockMvc.perform(get("/api/orders/customer/{email}", EMAIL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(jsonPath("$.items[0].items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].items[0].productName").exists())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        assertThat(StatementCounter.current()).isEqualTo(2);
+    }
+
+    @Test
+    void summaryListingSkipsItemQuery() throws Exception {
+        StatementCounter.reset();
+
+        mockMvc.perform(get("/api/orders/customer/{email}", EMAIL).param("summary", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(jsonPath("$.items[0].totalAmount").value(18.0))
+                .andExpect(jsonPath("$.items[0].orderDate").isString())
+                .andExpect(jsonPath("$.items[0].items").doesNotExist());
+
+        assertThat(StatementCounter.current()).isEqualTo(1);
+    }
+
+    @Test
+    void sparseFieldsetLimitsProperties() throws Exception {
+        String body = mockMvc.perform(get("/api/orders/customer/{email}", EMAIL).param("fields", "id,status"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Map<String, Object> first = JsonPath.read(body, "$.items[0]");
+        assertThat(first).containsOnlyKeys("id", "status");
+        assertThat(first.get("status")).isEqualTo("PENDING");
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/orders").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void customerOrdersArePagedWithCursor() throws Exception {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/orders/customer/{email}", EMAIL).param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Integer> ids = JsonPath.read(body, "$.items[*].id");
+            ids.forEach(id -> assertThat(seen.add(id.longValue())).isTrue());
+            cursor = JsonPath.read(body, "$.nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(5);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/orders").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(product("Listing product " + i, "listing", BigDecimal.valueOf(5 + i), 100));
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private CreateOrderRequest orderRequest(List<Product> products) {
+        return TestFixtures.orderRequest("Listing Customer", EMAIL, lines(products, 1));
+    }
+}
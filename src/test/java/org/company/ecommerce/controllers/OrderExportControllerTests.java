@@ -0,0 +1,141 @@
+package org.company.ecommerce.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.company.ecommerce.dto.OrderResponse;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.OrderExportService;
+import org.company.ecommerce.services.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.orderRequest;
+import static org.company.ecommerce.TestFixtures.product;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own database so the export sees exactly the orders created here; a fetch size of 2 makes
+// five orders span three chunks.
+@SpringBootTest(properties = {
+        "test.db.name=export_db",
+        "orders.export.fetch-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderExportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from orders");
+        orderIds.clear();
+
+        Product product = productRepository.save(product("Export SKU", "export", BigDecimal.TEN, 100));
+        for (int i = 0; i < 5; i++) {
+            orderIds.add(orderService.createOrder(orderRequest("Export Customer", "export@example.com", product, i + 1)).getId());
+        }
+        orderService.changeStatus(orderIds.get(1), OrderStatus.CONFIRMED);
+        orderService.changeStatus(orderIds.get(3), OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void streamsEveryOrderAsOneJsonLineAfterTheAsyncDispatch() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<OrderResponse> exported = parse(body);
+        assertThat(exported).extracting(OrderResponse::getId).containsExactlyElementsOf(orderIds);
+        assertThat(exported).allSatisfy(o -> assertThat(o.getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProductName()).isEqualTo("Export SKU")));
+        assertThat(exported.get(4).getItems().get(0).getQuantity()).isEqualTo(5);
+        assertThat(exported.get(4).getTotalAmount()).isEqualByComparingTo("50");
+    }
+
+    @Test
+    void statusFilterIsApplied() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/orders/export").param("status", "CONFIRMED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(parse(body)).extracting(OrderResponse::getId)
+                .containsExactly(orderIds.get(1), orderIds.get(3));
+    }
+
+    @Test
+    void chunksAreWrittenLoadedAndThenDetached() {
+        List<Integer> sizes = new ArrayList<>();
+        List<Order> previous = new ArrayList<>();
+
+        long count = orderExportService.export(null, null, null, chunk -> {
+            // the chunk before this one was cleared out of the persistence context
+            assertThat(previous).noneMatch(entityManager::contains);
+            assertThat(chunk).allSatisfy(o -> assertThat(o.getOrderItems()).hasSize(1));
+            sizes.add(chunk.size());
+            previous.clear();
+            previous.addAll(chunk);
+        });
+
+        assertThat(count).isEqualTo(5);
+        assertThat(sizes).containsExactly(2, 2, 1);
+    }
+
+    private List<OrderResponse> parse(String ndjson) throws Exception {
+        List<OrderResponse> orders = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            orders.add(objectMapper.readValue(line, OrderResponse.class));
+        }
+        return orders;
+    }
+}
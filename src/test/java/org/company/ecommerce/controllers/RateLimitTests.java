@@ -0,0 +1,114 @@
+package org.company.ecommerce.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.company.ecommerce.config.DatabaseBulkhead;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ratelimit.enabled=true",
+        "ratelimit.catalog-read.per-second=0.5",
+        "ratelimit.catalog-read.burst=3",
+        "ratelimit.order-write.per-second=0.5",
+        "ratelimit.order-write.burst=1",
+        "ratelimit.shed.queue-latency=250ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // stands in for a bulkhead with a queue, so shedding can be driven directly
+    @MockBean
+    private DatabaseBulkhead databaseBulkhead;
+
+    @BeforeEach
+    void setUp() {
+        when(databaseBulkhead.queueLatency()).thenReturn(Duration.ZERO);
+    }
+
+    @Test
+    void catalogReadsAreLimitedPerClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(search("10.0.0.1")).andExpect(status().isOk());
+        }
+        mockMvc.perform(search("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+
+        // another address has its own bucket
+        mockMvc.perform(search("10.0.0.2")).andExpect(status().isOk());
+        assertThat(decisions("catalog-read", "limited")).isEqualTo(1);
+    }
+
+    @Test
+    void rotatingApiKeysDoesNotEscapeTheLimit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(search("10.0.0.3").header("X-API-Key", "key-" + i)).andExpect(status().isOk());
+        }
+        mockMvc.perform(search("10.0.0.3").header("X-API-Key", "key-3"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void orderWritesHaveTheirOwnBudget() throws Exception {
+        mockMvc.perform(post("/api/orders/bulk").with(from("10.0.1.1"))
+                        .contentType("application/json").content("[]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders/bulk").with(from("10.0.1.1"))
+                        .contentType("application/json").content("[]"))
+                .andExpect(status().isTooManyRequests());
+
+        // catalog reads of the same client are unaffected
+        mockMvc.perform(search("10.0.1.1")).andExpect(status().isOk());
+    }
+
+    @Test
+    void limitedEndpointsAreShedWhileRequestsQueue() throws Exception {
+        when(databaseBulkhead.queueLatency()).thenReturn(Duration.ofMillis(1_500));
+
+        mockMvc.perform(search("10.0.2.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+        // endpoints outside the limited classes are still admitted
+        mockMvc.perform(get("/api/orders")).andExpect(status().isOk());
+        assertThat(decisions("catalog-read", "shed")).isEqualTo(1);
+    }
+
+    private MockHttpServletRequestBuilder search(String address) {
+        return get("/api/products/search").param("category", "rate-limit").with(from(address));
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private double decisions(String limitClass, String outcome) {
+        return meterRegistry.get("ratelimit.decisions").tag("class", limitClass).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,116 @@
+package org.company.ecommerce.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.line;
+import static org.company.ecommerce.TestFixtures.orderRequest;
+import static org.company.ecommerce.TestFixtures.product;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    void setUp() {
+        first = productRepository.save(product("Metrics SKU A", "metrics", BigDecimal.TEN, 100));
+        second = productRepository.save(product("Metrics SKU B", "metrics", BigDecimal.ONE, 100));
+    }
+
+    @Test
+    void createdOrderRecordsTimerItemsAndStatements() throws Exception {
+        long created = timerCount("orders.create", "outcome", "success");
+        long itemSamples = summary("orders.items").count();
+        double itemTotal = summary("orders.items").totalAmount();
+        long requests = statements().count();
+        double statementTotal = statements().totalAmount();
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest("Metrics Customer", "metrics@example.com",
+                                List.of(line(first, 1), line(second, 2))))))
+                .andExpect(status().isCreated());
+
+        assertThat(timerCount("orders.create", "outcome", "success") - created).isEqualTo(1);
+        assertThat(summary("orders.items").count() - itemSamples).isEqualTo(1);
+        assertThat(summary("orders.items").totalAmount() - itemTotal).isEqualTo(2);
+        assertThat(statements().count() - requests).isEqualTo(1);
+        // the statement inspector installed by MetricsConfig saw the insert at least
+        assertThat(statements().totalAmount() - statementTotal).isPositive();
+    }
+
+    @Test
+    void failedOrderRecordsItsOutcomeAndAnApiError() throws Exception {
+        long failed = timerCount("orders.create", "outcome", "ProductNotFoundException");
+        long itemSamples = summary("orders.items").count();
+        double errors = apiErrors("ProductNotFoundException", "404");
+        long requests = statements().count();
+
+        Product missing = product("Missing", "metrics", BigDecimal.ONE, 1);
+        missing.setId(987_654_321L);
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest("Metrics Customer", "metrics@example.com",
+                                missing, 1))))
+                .andExpect(status().isNotFound());
+
+        assertThat(timerCount("orders.create", "outcome", "ProductNotFoundException") - failed).isEqualTo(1);
+        assertThat(summary("orders.items").count()).isEqualTo(itemSamples);
+        assertThat(apiErrors("ProductNotFoundException", "404") - errors).isEqualTo(1);
+        assertThat(statements().count() - requests).isEqualTo(1);
+    }
+
+    private long timerCount(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.get(name).summary();
+    }
+
+    // registered by the first POST /api/orders; an empty summary stands in until then
+    private DistributionSummary statements() {
+        DistributionSummary summary = meterRegistry.find("http.server.requests.statements")
+                .tags("method", "POST", "uri", "/api/orders").summary();
+        return summary != null ? summary : DistributionSummary.builder("unrecorded").register(new SimpleMeterRegistry());
+    }
+
+    private double apiErrors(String exception, String status) {
+        var counter = meterRegistry.find("api.errors").tags("exception", exception, "status", status).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,29 @@
+package org.company.ecommerce.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the endpoint is exposed here the way an operator would enable it
+@SpringBootTest(properties = {
+        "test.db.name=aggregates_endpoint_db",
+        "management.endpoints.web.exposure.include=health,salesaggregates"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SalesAggregatesEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void rebuildIsAnActuatorOperation() throws Exception {
+        mockMvc.perform(post("/actuator/salesaggregates")).andExpect(status().isNoContent());
+    }
+}
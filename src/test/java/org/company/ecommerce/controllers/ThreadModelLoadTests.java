@@ -0,0 +1,179 @@
+package org.company.ecommerce.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.ECommerceOrderManagementSystemApplication;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.product;
+
+// Closed-loop load test: N clients each keep one request in flight against a mix of order
+// listing, order creation and order reads, once with platform threads and once with virtual
+// threads. The virtual run is skipped on JVMs older than 21.
+//
+// mvn test -Dtest=ThreadModelLoadTests -Dbenchmarks=true [-Dload.clients=2000 -Dload.seconds=30]
+// add -DargLine=-Djdk.tracePinnedThreads=short to have the JVM print stacks of pinned virtual threads
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ThreadModelLoadTests {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 2_000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+    private static final int PRODUCTS = 200;
+
+    @Test
+    void compareThroughputAndTailLatency() throws Exception {
+        Result platform = run(false);
+        log.info("platform threads: {}", platform);
+        if (Runtime.version().feature() < 21) {
+            log.info("virtual threads:  skipped, needs Java 21+ (running {})", Runtime.version());
+            return;
+        }
+        Result virtual = run(true);
+        log.info("virtual threads:  {}", virtual);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(ECommerceOrderManagementSystemApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "test.db.name=load_" + virtualThreads,
+                        "logging.level.org.company.ecommerce=WARN")
+                .run()) {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            List<Long> productIds = seed(ctx.getBean(ProductRepository.class));
+            return new LoadRun(base, productIds).execute();
+        }
+    }
+
+    private List<Long> seed(ProductRepository products) {
+        List<Product> rows = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(product("Load SKU " + i, "load", BigDecimal.valueOf(10 + i), 1_000_000));
+        }
+        return products.saveAll(rows).stream().map(Product::getId).toList();
+    }
+
+    private record Result(long requests, long errors, double throughput, double p50Ms, double p99Ms) {
+        @Override
+        public String toString() {
+            return String.format("%,d requests, %,d errors, %,.0f req/s, p50 %.1f ms, p99 %.1f ms",
+                    requests, errors, throughput, p50Ms, p99Ms);
+        }
+    }
+
+    private static final class LoadRun {
+
+        private final String base;
+        private final List<Long> productIds;
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+        // ring of recently created order ids for the read mix
+        private final AtomicLongArray recentOrders = new AtomicLongArray(1024);
+        private final AtomicLong created = new AtomicLong();
+        private long deadline;
+
+        LoadRun(String base, List<Long> productIds) {
+            this.base = base;
+            this.productIds = productIds;
+        }
+
+        Result execute() throws Exception {
+            // warm up the connection pool, JIT and caches before measuring
+            deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            clients(Math.min(CLIENTS, 50));
+            latencies.clear();
+            errors.set(0);
+
+            long start = System.nanoTime();
+            deadline = start + DURATION.toNanos();
+            clients(CLIENTS);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            assertThat(sorted).isNotEmpty();
+            return new Result(sorted.length, errors.get(), sorted.length / elapsed,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+
+        private void clients(int count) {
+            CompletableFuture<?>[] loops = new CompletableFuture<?>[count];
+            Arrays.setAll(loops, i -> loop());
+            CompletableFuture.allOf(loops).join();
+        }
+
+        private CompletableFuture<Void> loop() {
+            if (System.nanoTime() >= deadline) {
+                return CompletableFuture.completedFuture(null);
+            }
+            long sent = System.nanoTime();
+            return http.sendAsync(nextRequest(), HttpResponse.BodyHandlers.ofString())
+                    .handle((response, error) -> {
+                        latencies.add(System.nanoTime() - sent);
+                        if (error != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else if (response.request().method().equals("POST")) {
+                            recentOrders.set((int) (created.getAndIncrement() & 1023), idOf(response.body()));
+                        }
+                        return null;
+                    })
+                    .thenCompose(ignored -> loop());
+        }
+
+        private HttpRequest nextRequest() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(4);
+            long known = Math.min(created.get(), recentOrders.length());
+            long orderId = known == 0 ? 0 : recentOrders.get(random.nextInt((int) known));
+            if (pick == 0 || orderId == 0) {
+                long product = productIds.get(random.nextInt(productIds.size()));
+                String body = "{\"customerName\":\"Load\",\"customerEmail\":\"load" + random.nextInt(100)
+                        + "@example.com\",\"items\":[{\"productId\":" + product + ",\"quantity\":1}]}";
+                return HttpRequest.newBuilder(URI.create(base + "/api/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            if (pick == 1) {
+                return HttpRequest.newBuilder(URI.create(base + "/api/orders?size=20")).GET().build();
+            }
+            return HttpRequest.newBuilder(URI.create(base + "/api/orders/" + orderId)).GET().build();
+        }
+
+        private static long idOf(String json) {
+            int start = json.indexOf("\"id\":") + 5;
+            int end = start;
+            while (end < json.length() && Character.isDigit(json.charAt(end))) {
+                end++;
+            }
+            return end > start ? Long.parseLong(json.substring(start, end)) : 0;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
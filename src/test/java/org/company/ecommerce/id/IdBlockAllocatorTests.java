@@ -0,0 +1,109 @@
+package org.company.ecommerce.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdBlockAllocatorTests {
+
+    private static final int BLOCK = 50;
+
+    // a pooled-lo sequence: 1, 51, 101, ...
+    private static LongSupplier sequence(AtomicLong value) {
+        return () -> value.getAndAdd(BLOCK);
+    }
+
+    @Test
+    void concurrentThreadsGetDistinctIdsWithoutGaps() throws Exception {
+        AtomicLong value = new AtomicLong(1);
+        ExecutorService prefetcher = Executors.newCachedThreadPool();
+        IdBlockAllocator allocator = new IdBlockAllocator(BLOCK, BLOCK / 2, prefetcher, sequence(value));
+        int threads = 16;
+        int perThread = 10_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(allocator.next(sequence(value)));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+            prefetcher.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(threads * perThread);
+        // every reserved block was used up except, at most, the one in use and one prefetched
+        long reserved = (value.get() - 1) / BLOCK;
+        assertThat(reserved).isEqualTo(allocator.prefetchedBlocks() + allocator.inlineFetches());
+        assertThat(reserved * BLOCK - ids.size()).isLessThan(2L * BLOCK);
+        assertThat(allocator.prefetchedBlocks()).isPositive();
+    }
+
+    @Test
+    void steadyCallerNeverWaitsOnTheSequence() {
+        AtomicLong value = new AtomicLong(1);
+        // runs the prefetch on the calling thread, so it is always ready in time
+        IdBlockAllocator allocator = new IdBlockAllocator(BLOCK, 10, Runnable::run, sequence(value));
+        AtomicLong inline = new AtomicLong();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(allocator.next(() -> {
+                inline.incrementAndGet();
+                return value.getAndAdd(BLOCK);
+            })).isEqualTo(i + 1);
+        }
+
+        // only the very first block is reserved inline
+        assertThat(inline.get()).isEqualTo(1);
+        assertThat(allocator.prefetchedBlocks()).isEqualTo(20);
+    }
+
+    @Test
+    void failedPrefetchFallsBackToInlineReservation() {
+        AtomicLong value = new AtomicLong(1);
+        IdBlockAllocator allocator = new IdBlockAllocator(BLOCK, 10, Runnable::run, () -> {
+            throw new IllegalStateException("replica of the sequence is down");
+        });
+
+        for (int i = 0; i < 3 * BLOCK; i++) {
+            assertThat(allocator.next(sequence(value))).isEqualTo(i + 1);
+        }
+        assertThat(allocator.inlineFetches()).isEqualTo(3);
+    }
+
+    @Test
+    void failedInlineReservationIsRetriedByTheNextCaller() {
+        AtomicLong value = new AtomicLong(1);
+        IdBlockAllocator allocator = new IdBlockAllocator(BLOCK, 0, Runnable::run, () -> {
+            throw new IllegalStateException("down");
+        });
+
+        assertThatThrownBy(() -> allocator.next(() -> {
+            throw new IllegalStateException("connection refused");
+        })).hasMessage("connection refused");
+        assertThat(allocator.next(sequence(value))).isEqualTo(1);
+    }
+}
@@ -0,0 +1,157 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.product;
+
+// The application runs with the database ledger; the in-memory one is created per test so
+// evictions and flushes here cannot interfere with other tests.
+@SpringBootTest
+@ActiveProfiles("test")
+class InMemoryStockLedgerTests {
+
+    private static final int STOCK = 10_000;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryStockLedger ledger;
+    private TransactionTemplate tx;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(product("Ledger SKU", "ledger", BigDecimal.ONE, STOCK)).getId();
+        ledger = beanFactory.createBean(InMemoryStockLedger.class);
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        beanFactory.destroyBean(ledger);
+    }
+
+    @Test
+    void rollbackAfterAnEvictionDoesNotGiveStockBackTwice() {
+        tx.executeWithoutResult(s -> {
+            ledger.reserve(line(10));
+            evictElsewhere();
+            // reloaded from the column, which never saw the reservation
+            assertThat(ledger.available(productId)).isEqualTo(STOCK);
+            s.setRollbackOnly();
+        });
+
+        ledger.flush();
+        assertThat(ledger.available(productId)).isEqualTo(STOCK);
+        assertThat(productRepository.findStockById(productId)).contains(STOCK);
+    }
+
+    @Test
+    void commitAfterAnEvictionIsChargedToTheReloadedCounter() {
+        tx.executeWithoutResult(s -> {
+            ledger.reserve(line(10));
+            evictElsewhere();
+            assertThat(ledger.available(productId)).isEqualTo(STOCK);
+        });
+
+        assertThat(ledger.available(productId)).isEqualTo(STOCK - 10);
+        ledger.flush();
+        assertThat(productRepository.findStockById(productId)).contains(STOCK - 10);
+    }
+
+    @Test
+    void evictionInARolledBackTransactionKeepsFlushedDeltasAndTheCounter() {
+        ledger.reserve(line(5));
+
+        tx.executeWithoutResult(s -> {
+            ledger.evict(productId);
+            s.setRollbackOnly();
+        });
+
+        assertThat(productRepository.findStockById(productId)).contains(STOCK - 5);
+        assertThat(ledger.available(productId)).isEqualTo(STOCK - 5);
+    }
+
+    @Test
+    void concurrentEvictionsNeverLoseOrDuplicateStock() throws Exception {
+        int threads = 8;
+        int reservationsPerThread = 150;
+        AtomicInteger committed = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        try {
+            Future<?> evictor = pool.submit(() -> {
+                while (!done.get()) {
+                    ledger.evict(productId);
+                }
+            });
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < reservationsPerThread; i++) {
+                        boolean rollback = ThreadLocalRandom.current().nextBoolean();
+                        tx.executeWithoutResult(s -> {
+                            ledger.reserve(line(1));
+                            if (rollback) s.setRollbackOnly();
+                        });
+                        if (!rollback) committed.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            evictor.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ledger.flush();
+        int expected = STOCK - committed.get();
+        assertThat(productRepository.findStockById(productId)).contains(expected);
+        assertThat(ledger.available(productId)).isEqualTo(expected);
+    }
+
+    // an update committed by another request while the reservation is still in flight
+    private void evictElsewhere() {
+        CompletableFuture.runAsync(() -> ledger.evict(productId)).join();
+    }
+
+    private SortedMap<Long, Integer> line(int quantity) {
+        SortedMap<Long, Integer> line = new TreeMap<>();
+        line.put(productId, quantity);
+        return line;
+    }
+}
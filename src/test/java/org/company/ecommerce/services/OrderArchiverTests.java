@@ -0,0 +1,179 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CategorySalesReport;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.DailyRevenueReport;
+import org.company.ecommerce.dto.OrderRow;
+import org.company.ecommerce.dto.OrderRowPage;
+import org.company.ecommerce.dto.ProductSalesReport;
+import org.company.ecommerce.exceptions.InvalidOrderStatusException;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.OrderRepository;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.company.ecommerce.TestFixtures.product;
+
+// Own database so archive runs of this class cannot move orders other tests look for;
+// the scheduled run is pushed out of the way and archive() is driven by hand.
+@SpringBootTest(properties = {
+        "test.db.name=archive_db",
+        "orders.archive.retention=30d",
+        "orders.archive.chunk-size=2",
+        "orders.archive.interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class OrderArchiverTests {
+
+    private static final String EMAIL = "archive@example.com";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderArchiver archiver;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportService reportService;
+
+    private Order delivered;
+    private Order cancelled;
+    private Order oldPending;
+    private Order recentDelivered;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from order_item_archive");
+        jdbcTemplate.update("delete from orders_archive");
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from orders");
+
+        Product product = createProduct();
+        delivered = deliver(orderService.createOrder(orderRequest(product)));
+        cancelled = orderService.createOrder(orderRequest(product));
+        orderService.cancelOrder(cancelled.getId());
+        oldPending = orderService.createOrder(orderRequest(product));
+        recentDelivered = deliver(orderService.createOrder(orderRequest(product)));
+
+        backdate(delivered, 90);
+        backdate(cancelled, 60);
+        backdate(oldPending, 120);
+        backdate(recentDelivered, 1);
+    }
+
+    @Test
+    void movesOnlyOldTerminalOrders() {
+        archiver.archive();
+
+        assertThat(orderRepository.existsById(delivered.getId())).isFalse();
+        assertThat(orderRepository.existsById(cancelled.getId())).isFalse();
+        assertThat(orderRepository.existsById(oldPending.getId())).isTrue();
+        assertThat(orderRepository.existsById(recentDelivered.getId())).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_item_archive", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    void getOrderFallsBackToTheArchive() {
+        archiver.archive();
+
+        Order order = orderService.getOrder(delivered.getId());
+
+        assertThat(order.isArchived()).isTrue();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(order.getOrderItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProductName()).isEqualTo("Archive SKU"));
+    }
+
+    @Test
+    void customerListingsMergeHotAndArchivedOrders() {
+        archiver.archive();
+        List<Long> newestFirst = List.of(recentDelivered.getId(), cancelled.getId(), delivered.getId(), oldPending.getId());
+
+        OrderRowPage rows = orderService.findRowsByCustomerEmail(EMAIL, null, 10, true);
+        assertThat(rows.orders()).extracting(OrderRow::id).containsExactlyElementsOf(newestFirst);
+        assertThat(rows.orders()).allSatisfy(row -> assertThat(rows.itemsOf(row)).hasSize(1));
+
+        List<Long> walked = new ArrayList<>();
+        OrderRowPage page = orderService.findRowsByCustomerEmail(EMAIL, null, 1, false);
+        while (true) {
+            page.orders().forEach(o -> walked.add(o.id()));
+            if (page.nextCursor() == null) {
+                break;
+            }
+            page = orderService.findRowsByCustomerEmail(EMAIL, page.nextCursor(), 1, false);
+        }
+        assertThat(walked).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void rebuildCountsArchivedOrders() {
+        reportService.rebuild();
+        LocalDate today = LocalDate.now();
+        List<DailyRevenueReport> revenue = reportService.dailyRevenue(today.minusDays(200), today);
+        List<CategorySalesReport> categories = reportService.categorySales(today.minusDays(200), today);
+        List<ProductSalesReport> products = reportService.topProducts(10);
+
+        archiver.archive();
+        reportService.rebuild();
+
+        assertThat(reportService.dailyRevenue(today.minusDays(200), today)).isEqualTo(revenue);
+        assertThat(reportService.categorySales(today.minusDays(200), today)).isEqualTo(categories);
+        assertThat(reportService.topProducts(10)).isEqualTo(products);
+    }
+
+    @Test
+    void archivedOrdersCannotChangeStatus() {
+        archiver.archive();
+
+        assertThatThrownBy(() -> orderService.cancelOrder(delivered.getId()))
+                .isInstanceOf(InvalidOrderStatusException.class);
+        // cancelling a cancelled order stays a no-op
+        orderService.cancelOrder(cancelled.getId());
+        assertThat(orderRepository.existsById(delivered.getId())).isFalse();
+    }
+
+    private Order deliver(Order order) {
+        orderService.changeStatus(order.getId(), OrderStatus.CONFIRMED);
+        orderService.changeStatus(order.getId(), OrderStatus.SHIPPED);
+        return orderService.changeStatus(order.getId(), OrderStatus.DELIVERED);
+    }
+
+    private void backdate(Order order, int days) {
+        jdbcTemplate.update("update orders set order_date = ? where id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(days)), order.getId());
+    }
+
+    private Product createProduct() {
+        return productRepository.save(product("Archive SKU", "archive", BigDecimal.TEN, 100));
+    }
+
+    private static CreateOrderRequest orderRequest(Product product) {
+        return TestFixtures.orderRequest("Archive Customer", EMAIL, product, 1);
+    }
+}
@@ -0,0 +1,110 @@
+package org.company.ecommerce.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.metrics.StatementCounter;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.lines;
+import static org.company.ecommerce.TestFixtures.product;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceBatchingTests {
+
+    // 1 product select + 2 sequence calls + 1 order insert + 1 batched item insert.
+    private static final int MAX_STATEMENTS_FOR_20_ITEMS = 5;
+
+    // With batching off: 1 product select + 1 order insert + 20 item inserts, plus sequence
+    // calls whenever the pooled ids run out.
+    private static final int MIN_UNBATCHED_STATEMENTS_FOR_20_ITEMS = 22;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void twentyItemOrderIsPersistedWithBatchedStatements() {
+        CreateOrderRequest req = orderRequest(createProducts(20));
+
+        statistics.clear();
+        StatementCounter.reset();
+        Order order = orderService.createOrder(req);
+
+        assertThat(order.getOrderItems()).hasSize(20);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(21);
+        assertThat(StatementCounter.current()).isLessThanOrEqualTo(MAX_STATEMENTS_FOR_20_ITEMS);
+    }
+
+    @Test
+    void sameOrderTakesAStatementPerItemWithBatchingOff() {
+        int batched = statementsToCreate(orderRequest(createProducts(20)), null);
+        // A batch size of 1 makes Hibernate execute every insert on its own, as with batching off.
+        int unbatched = statementsToCreate(orderRequest(createProducts(20)), 1);
+
+        assertThat(batched).isLessThanOrEqualTo(MAX_STATEMENTS_FOR_20_ITEMS);
+        assertThat(unbatched).isGreaterThanOrEqualTo(MIN_UNBATCHED_STATEMENTS_FOR_20_ITEMS);
+    }
+
+    // Creates the order in a session using the given JDBC batch size (null for the configured one)
+    // and returns how many statements that took.
+    private int statementsToCreate(CreateOrderRequest req, Integer jdbcBatchSize) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            StatementCounter.reset();
+            orderService.createOrder(req);
+            entityManager.flush();
+            return StatementCounter.current();
+        });
+    }
+
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(product("Batch product " + i, "batch", BigDecimal.valueOf(10 + i), 100));
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private CreateOrderRequest orderRequest(List<Product> products) {
+        return TestFixtures.orderRequest("Batch Customer", "batch@example.com", lines(products, 2));
+    }
+}
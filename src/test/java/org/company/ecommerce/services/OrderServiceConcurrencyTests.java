@@ -0,0 +1,99 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.exceptions.InsufficientStockException;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.lines;
+import static org.company.ecommerce.TestFixtures.product;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceConcurrencyTests {
+
+    private static final int STOCK = 10;
+    private static final int ORDERS = 40;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentConfirmationsNeverOversell() throws Exception {
+        Product hot = createProduct("Hot SKU");
+        Product companion = createProduct("Companion SKU");
+
+        // lines are listed in alternating order so unsorted locking would deadlock
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Product first = i % 2 == 0 ? hot : companion;
+            Product second = i % 2 == 0 ? companion : hot;
+            orderIds.add(orderService.createOrder(orderRequest(first, second)).getId());
+        }
+
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long id : orderIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    orderService.changeStatus(id, OrderStatus.CONFIRMED);
+                    confirmed.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(confirmed.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(ORDERS - STOCK);
+        assertThat(productRepository.findById(hot.getId()).orElseThrow().getStock()).isZero();
+        assertThat(productRepository.findById(companion.getId()).orElseThrow().getStock()).isZero();
+
+        long confirmedOrders = orderIds.stream()
+                .map(orderService::getOrder)
+                .map(Order::getStatus)
+                .filter(s -> s == OrderStatus.CONFIRMED)
+                .count();
+        assertThat(confirmedOrders).isEqualTo(STOCK);
+    }
+
+    private Product createProduct(String name) {
+        return productRepository.save(product(name, "flash-sale", BigDecimal.valueOf(25), STOCK));
+    }
+
+    private CreateOrderRequest orderRequest(Product... products) {
+        return TestFixtures.orderRequest("Flash Buyer", "flash@example.com", lines(List.of(products), 1));
+    }
+}
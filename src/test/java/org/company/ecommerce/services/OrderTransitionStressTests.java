@@ -0,0 +1,167 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.exceptions.InsufficientStockException;
+import org.company.ecommerce.exceptions.InvalidOrderStatusException;
+import org.company.ecommerce.exceptions.OrderConflictException;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderItem;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.OutboxEvent;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.OrderRepository;
+import org.company.ecommerce.repository.OutboxEventRepository;
+import org.company.ecommerce.repository.ProductRepository;
+import org.company.ecommerce.services.OrderStateMachine.StockEffect;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.line;
+import static org.company.ecommerce.TestFixtures.product;
+
+// Random concurrent confirms, ships, deliveries and cancels against a few hot orders. Whatever
+// interleaving wins, replaying the committed outbox events must explain every unit of stock.
+// Uses its own database with the dispatcher off so the outbox is kept as a complete log.
+@SpringBootTest(properties = {
+        "test.db.name=transition_db",
+        "outbox.dispatcher.enabled=false",
+        "orders.transition.max-attempts=" + OrderTransitionStressTests.MAX_ATTEMPTS
+})
+@ActiveProfiles("test")
+class OrderTransitionStressTests {
+
+    private static final int SKUS = 3;
+    private static final int STOCK = 40;
+    private static final int ORDERS = 20;
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 800;
+    static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void mixedConcurrentTransitionsConserveStock() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < SKUS; i++) {
+            products.add(createProduct("Stress SKU " + i));
+        }
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.createOrder(orderRequest(products, i)).getId());
+        }
+
+        double conflictsBefore = conflicts();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger gaveUp = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS / THREADS; i++) {
+                    Long id = orderIds.get(random.nextInt(orderIds.size()));
+                    try {
+                        switch (random.nextInt(5)) {
+                            case 0, 1 -> orderService.changeStatus(id, OrderStatus.CONFIRMED);
+                            case 2 -> orderService.changeStatus(id, random.nextBoolean() ? OrderStatus.SHIPPED : OrderStatus.DELIVERED);
+                            case 3 -> orderService.changeStatus(id, OrderStatus.CANCELLED);
+                            default -> orderService.cancelOrder(id);
+                        }
+                        applied.incrementAndGet();
+                    } catch (InvalidOrderStatusException | InsufficientStockException e) {
+                        // expected for transitions that lost the race or are not allowed
+                    } catch (OrderConflictException e) {
+                        gaveUp.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // replay the outbox: every order's events must chain from PENDING to its final status,
+        // and the stock effects of those events must account for exactly the stock that is gone
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findWithItemsByIdIn(orderIds)) {
+            orders.put(order.getId(), order);
+        }
+        Map<Long, OrderStatus> replayed = new HashMap<>();
+        Map<Long, Integer> held = new HashMap<>();
+        for (OutboxEvent event : outboxEventRepository.findAll(Sort.by("orderId", "seq"))) {
+            Order order = orders.get(event.getOrderId());
+            if (order == null) {
+                continue;
+            }
+            assertThat(event.getFromStatus()).isEqualTo(replayed.getOrDefault(order.getId(), OrderStatus.PENDING));
+            replayed.put(order.getId(), event.getToStatus());
+            StockEffect effect = event.getToStatus() == OrderStatus.CANCELLED
+                    ? OrderStateMachine.cancellation(event.getFromStatus())
+                    : OrderStateMachine.transition(event.getFromStatus(), event.getToStatus());
+            int sign = effect == StockEffect.RESERVE ? 1 : effect == StockEffect.RELEASE ? -1 : 0;
+            for (OrderItem item : order.getOrderItems()) {
+                held.merge(item.getProduct().getId(), sign * item.getQuantity(), Integer::sum);
+            }
+        }
+        for (Order order : orders.values()) {
+            assertThat(replayed.getOrDefault(order.getId(), OrderStatus.PENDING)).isEqualTo(order.getStatus());
+        }
+        for (Product p : products) {
+            int stock = productRepository.findStockById(p.getId()).orElseThrow();
+            assertThat(STOCK - stock).as("stock held for product %d", p.getId()).isEqualTo(held.getOrDefault(p.getId(), 0));
+        }
+        assertThat(applied.get()).isPositive();
+        // every transition that gave up ran into a version conflict on each of its attempts
+        assertThat(conflicts() - conflictsBefore).isGreaterThanOrEqualTo(gaveUp.get() * MAX_ATTEMPTS);
+    }
+
+    private double conflicts() {
+        return meterRegistry.find("orders.transition.conflicts").counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private Product createProduct(String name) {
+        return productRepository.save(product(name, "stress", BigDecimal.ONE, STOCK));
+    }
+
+    private static CreateOrderRequest orderRequest(List<Product> products, int n) {
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i <= n % 2; i++) {
+            items.add(line(products.get((n + i) % products.size()), 1 + n % 3));
+        }
+        return TestFixtures.orderRequest("Stress Customer", "stress@example.com", items);
+    }
+}
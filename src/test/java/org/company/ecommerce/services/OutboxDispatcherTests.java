@@ -0,0 +1,136 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.OrderEvent;
+import org.company.ecommerce.exceptions.InsufficientStockException;
+import org.company.ecommerce.models.Order;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.OutboxEvent;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.OutboxEventRepository;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.company.ecommerce.TestFixtures.product;
+
+// Own database so dispatchers of other cached test contexts cannot drain this outbox;
+// the scheduled run is pushed out of the way and dispatch() is driven by hand.
+@SpringBootTest(properties = {
+        "test.db.name=outbox_db",
+        "outbox.sink=memory",
+        "outbox.memory.capacity=3",
+        "outbox.batch-size=2",
+        "outbox.poll-interval-ms=3600000",
+        "outbox.max-backoff=0s"
+})
+@ActiveProfiles("test")
+class OutboxDispatcherTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private InMemoryOrderEventSink sink;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void clean() {
+        dispatcher.dispatch();
+        sink.drain();
+    }
+
+    @Test
+    void transitionsAreDeliveredInOrderPerOrder() {
+        Product product = createProduct(10);
+        Order order = orderService.createOrder(orderRequest(product, 1));
+
+        orderService.changeStatus(order.getId(), OrderStatus.CONFIRMED);
+        orderService.changeStatus(order.getId(), OrderStatus.SHIPPED);
+        orderService.changeStatus(order.getId(), OrderStatus.DELIVERED);
+        dispatcher.dispatch();
+
+        List<OrderEvent> events = sink.drain();
+        assertThat(events).extracting(OrderEvent::orderId).containsOnly(order.getId());
+        assertThat(events).extracting(OrderEvent::toStatus).containsExactly("CONFIRMED", "SHIPPED", "DELIVERED");
+        assertThat(events).extracting(OrderEvent::seq).containsExactly(1L, 2L, 3L);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void eventsAreDeliveredBySeqEvenWhenTheirIdsAreNot() {
+        // as when two nodes hand out ids from different blocks: the later change got the lower id
+        outboxEventRepository.save(event(-1L, 2L, OrderStatus.CONFIRMED, OrderStatus.SHIPPED));
+        outboxEventRepository.save(event(-1L, 1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+        dispatcher.dispatch();
+
+        assertThat(sink.drain()).extracting(OrderEvent::seq, OrderEvent::toStatus)
+                .containsExactly(tuple(1L, "CONFIRMED"), tuple(2L, "SHIPPED"));
+    }
+
+    @Test
+    void failedTransitionWritesNoEvent() {
+        Product product = createProduct(1);
+        Order order = orderService.createOrder(orderRequest(product, 5));
+
+        assertThatThrownBy(() -> orderService.changeStatus(order.getId(), OrderStatus.CONFIRMED))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void fullSinkKeepsEventsInOutbox() {
+        Product product = createProduct(10);
+        for (int i = 0; i < 4; i++) {
+            Order order = orderService.createOrder(orderRequest(product, 1));
+            orderService.cancelOrder(order.getId());
+        }
+
+        // first batch of 2 fits, the second does not fit into the remaining capacity of 1
+        dispatcher.dispatch();
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(sink.drain()).hasSize(2);
+        dispatcher.dispatch();
+        assertThat(sink.drain()).hasSize(2);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private static OutboxEvent event(Long orderId, Long seq, OrderStatus from, OrderStatus to) {
+        OutboxEvent event = new OutboxEvent();
+        event.setOrderId(orderId);
+        event.setSeq(seq);
+        event.setFromStatus(from);
+        event.setToStatus(to);
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+
+    private Product createProduct(int stock) {
+        return productRepository.save(product("Outbox SKU", "outbox", BigDecimal.TEN, stock));
+    }
+
+    private static CreateOrderRequest orderRequest(Product product, int quantity) {
+        return TestFixtures.orderRequest("Outbox Customer", "outbox@example.com", product, quantity);
+    }
+}
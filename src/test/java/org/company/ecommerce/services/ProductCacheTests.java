@@ -0,0 +1,111 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.company.ecommerce.models.ProductSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The cache is shared with the rest of the context, so every test uses ids no product has.
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductCacheTests {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void secondReadIsAHit() {
+        AtomicInteger loads = new AtomicInteger();
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        ProductSnapshot first = productCache.get(-1L, loader(loads));
+        ProductSnapshot second = productCache.get(-1L, loader(loads));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(gets("miss") - misses).isEqualTo(1);
+        assertThat(gets("hit") - hits).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThatThrownBy(() -> productCache.get(-2L, id -> {
+            throw new IllegalStateException("database down");
+        })).hasMessage("database down");
+
+        AtomicInteger loads = new AtomicInteger();
+        productCache.get(-2L, loader(loads));
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAfterCommitKeepsTheEntryUntilCommit() {
+        AtomicInteger loads = new AtomicInteger();
+        productCache.get(-3L, loader(loads));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+            productCache.invalidateAfterCommit(List.of(-3L));
+            productCache.get(-3L, loader(loads));
+        });
+        assertThat(loads.get()).isEqualTo(1);
+
+        productCache.get(-3L, loader(loads));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateAfterCommitDoesNothingOnRollback() {
+        AtomicInteger loads = new AtomicInteger();
+        productCache.get(-4L, loader(loads));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+            productCache.invalidateAfterCommit(List.of(-4L));
+            s.setRollbackOnly();
+        });
+
+        productCache.get(-4L, loader(loads));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAfterCommitOutsideATransactionIsImmediate() {
+        AtomicInteger loads = new AtomicInteger();
+        productCache.get(-5L, loader(loads));
+
+        productCache.invalidateAfterCommit(List.of(-5L));
+        productCache.get(-5L, loader(loads));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static Function<Long, ProductSnapshot> loader(AtomicInteger loads) {
+        return id -> {
+            loads.incrementAndGet();
+            return new ProductSnapshot(id, "Cached " + id, BigDecimal.ONE, 1, "cache", true, null, null, null);
+        };
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "products", "result", result).functionCounter().count();
+    }
+}
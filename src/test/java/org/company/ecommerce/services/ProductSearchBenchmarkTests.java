@@ -0,0 +1,97 @@
+package org.company.ecommerce.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+
+// Needs a scratch PostgreSQL database with pg_trgm available; the schema is dropped afterwards.
+// mvn test -Dtest=ProductSearchBenchmarkTests -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/bench \
+//     -Dbenchmark.postgres.username=... -Dbenchmark.postgres.password=...
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+class ProductSearchBenchmarkTests {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int CATEGORIES = 200;
+    private static final int SEARCHES = 200;
+
+    private static final String LEGACY_SEARCH =
+            "select * from product where upper(name) like upper(?) and upper(category) like upper(?) " +
+            "order by created_at desc limit 10";
+    private static final String LEGACY_COUNT =
+            "select count(*) from product where upper(name) like upper(?) and upper(category) like upper(?)";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("benchmark.postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.postgres.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.postgres.password", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.sql.init.mode", () -> "always");
+    }
+
+    @Test
+    void compareLegacyLikeScanWithIndexedSearch() {
+        jdbcTemplate.execute("insert into product (id, name, price, stock, category, is_active, created_at) " +
+                "select g, 'Product ' || md5(g::text), 10, 100, 'category-' || (g % " + CATEGORIES + "), true, " +
+                "now() - g * interval '1 second' from generate_series(1, " + PRODUCTS + ") g");
+        jdbcTemplate.execute("select setval('product_seq', " + (PRODUCTS + 1) + ")");
+        jdbcTemplate.execute("analyze product");
+
+        String[] terms = randomTerms();
+
+        report("legacy name LIKE scan", terms, t -> {
+            jdbcTemplate.queryForList(LEGACY_SEARCH, "%" + t + "%", "%%");
+            jdbcTemplate.queryForObject(LEGACY_COUNT, Long.class, "%" + t + "%", "%%");
+        });
+        report("indexed name search", terms, t -> productService.search(t, null, 0, 10));
+
+        report("legacy name + category LIKE scan", terms, t -> {
+            jdbcTemplate.queryForList(LEGACY_SEARCH, "%" + t + "%", "%category-7%");
+            jdbcTemplate.queryForObject(LEGACY_COUNT, Long.class, "%" + t + "%", "%category-7%");
+        });
+        report("indexed name + category search", terms, t -> productService.search(t, "category-7", 0, 10));
+    }
+
+    private static String[] randomTerms() {
+        Random random = new Random(42);
+        String[] terms = new String[SEARCHES];
+        for (int i = 0; i < SEARCHES; i++) {
+            terms[i] = Integer.toHexString(0x10000 + random.nextInt(0xEFFFF)).substring(0, 4);
+        }
+        return terms;
+    }
+
+    private static void report(String label, String[] terms, Consumer<String> search) {
+        for (int i = 0; i < 10; i++) {
+            search.accept(terms[i]);
+        }
+        long[] micros = new long[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            long start = System.nanoTime();
+            search.accept(terms[i]);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        log.info(String.format("%-34s p50=%,8d us  p95=%,8d us  max=%,8d us", label,
+                micros[micros.length / 2], micros[(int) (micros.length * 0.95)], micros[micros.length - 1]));
+    }
+}
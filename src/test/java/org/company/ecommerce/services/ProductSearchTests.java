@@ -0,0 +1,74 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.product;
+
+// own database so name searches only see the products created here
+@SpringBootTest(properties = "test.db.name=search_db")
+@ActiveProfiles("test")
+class ProductSearchTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productRepository.saveAll(List.of(
+                product("100% Cotton Shirt", "apparel", BigDecimal.TEN, 5),
+                product("100 Cotton Socks", "apparel", BigDecimal.ONE, 5),
+                product("snake_case Mug", "kitchen", BigDecimal.ONE, 5),
+                product("snakeXcase Mug", "kitchen", BigDecimal.ONE, 5),
+                product("Back\\slash Poster", "decor", BigDecimal.ONE, 5)));
+    }
+
+    @Test
+    void percentInTheTermMatchesLiterally() {
+        assertThat(names("100%", null)).containsExactly("100% Cotton Shirt");
+    }
+
+    @Test
+    void underscoreInTheTermMatchesLiterally() {
+        assertThat(names("e_c", null)).containsExactly("snake_case Mug");
+    }
+
+    @Test
+    void backslashInTheTermMatchesLiterally() {
+        assertThat(names("k\\s", null)).containsExactly("Back\\slash Poster");
+    }
+
+    @Test
+    void nameSearchIgnoresCaseAndSurroundingBlanks() {
+        assertThat(names("  COTTON ", null)).containsExactlyInAnyOrder("100% Cotton Shirt", "100 Cotton Socks");
+    }
+
+    @Test
+    void categoryOnlySearchMatchesTheWholeCategory() {
+        assertThat(names(null, "kitchen")).containsExactlyInAnyOrder("snake_case Mug", "snakeXcase Mug");
+        assertThat(names("  ", "apparel")).containsExactlyInAnyOrder("100% Cotton Shirt", "100 Cotton Socks");
+    }
+
+    @Test
+    void nameAndCategoryAreCombined() {
+        assertThat(names("mug", "apparel")).isEmpty();
+        assertThat(names("x", "kitchen")).containsExactly("snakeXcase Mug");
+    }
+
+    private List<String> names(String name, String category) {
+        return productService.search(name, category, 0, 10).map(Product::getName).getContent();
+    }
+}
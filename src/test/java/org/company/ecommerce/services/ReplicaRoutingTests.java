@@ -0,0 +1,137 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.config.ReadYourWrites;
+import org.company.ecommerce.config.ReplicaHealthMonitor;
+import org.company.ecommerce.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two H2 databases stand in for a primary and a streaming replica. The replica is a snapshot
+// of the primary taken in setUp and never updated afterwards, so whichever database served a
+// read can be told apart by what it returns. Its lag is whatever the replica_lag row says.
+@SpringBootTest(properties = {
+        "test.db.name=routing_primary",
+        "datasource.routing.enabled=true",
+        "datasource.replicas.urls=" + ReplicaRoutingTests.REPLICA_URL,
+        "datasource.replicas.lag-query=select seconds from replica_lag",
+        "datasource.replicas.max-lag=5s",
+        // checks are driven by the tests
+        "datasource.replicas.check-interval-ms=3600000",
+        "outbox.dispatcher.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    private static final String CATEGORY = "routing";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("delete from product where category = ?", CATEGORY);
+        productService.create(product("Replicated"));
+
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        primary.execute("script to 'target/routing-snapshot.sql'");
+        replica.execute("drop all objects");
+        replica.execute("runscript from 'target/routing-snapshot.sql'");
+        replica.execute("create table replica_lag (seconds double precision)");
+        replica.update("insert into replica_lag values (0)");
+        replicaHealthMonitor.check();
+
+        // only reaches the primary; the replica stays at the snapshot
+        productService.create(product("Primary only"));
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByReplica() {
+        assertThat(names()).containsExactly("Replicated");
+    }
+
+    @Test
+    void readsAfterWriteOnSameThreadStayOnPrimary() {
+        productService.create(product("Just written"));
+
+        assertThat(names()).containsExactlyInAnyOrder("Replicated", "Primary only", "Just written");
+    }
+
+    @Test
+    void pinToPrimaryEndsWithTheRequest() throws Exception {
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Posted\",\"price\":3,\"stock\":1,\"category\":\"" + CATEGORY + "\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/products/search").param("category", CATEGORY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Replicated"));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replica.update("update replica_lag set seconds = 30");
+        replicaHealthMonitor.check();
+
+        assertThat(names()).containsExactlyInAnyOrder("Replicated", "Primary only");
+
+        replica.update("update replica_lag set seconds = 1");
+        replicaHealthMonitor.check();
+
+        assertThat(names()).containsExactly("Replicated");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        replica.execute("drop table replica_lag");
+        replicaHealthMonitor.check();
+
+        assertThat(names()).containsExactlyInAnyOrder("Replicated", "Primary only");
+    }
+
+    private List<String> names() {
+        return productService.search(null, CATEGORY, 0, 10).map(Product::getName).getContent();
+    }
+
+    private Product product(String name) {
+        return TestFixtures.product(name, CATEGORY, BigDecimal.TEN, 5);
+    }
+}
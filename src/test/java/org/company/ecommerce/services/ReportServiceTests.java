@@ -0,0 +1,128 @@
+package org.company.ecommerce.services;
+
+import org.company.ecommerce.TestFixtures;
+import org.company.ecommerce.dto.CategorySalesReport;
+import org.company.ecommerce.dto.CreateOrderRequest;
+import org.company.ecommerce.dto.DailyRevenueReport;
+import org.company.ecommerce.dto.LowStockProduct;
+import org.company.ecommerce.dto.ProductSalesReport;
+import org.company.ecommerce.models.OrderStatus;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.company.ecommerce.TestFixtures.line;
+import static org.company.ecommerce.TestFixtures.product;
+
+// own database so orders created by other test classes do not show up in the totals
+@SpringBootTest(properties = "test.db.name=report_db")
+@ActiveProfiles("test")
+class ReportServiceTests {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void incrementalAggregatesMatchRebuild() {
+        Product toy = createProduct("Toy", "toys", "10.00");
+        Product book = createProduct("Book", "books", "5.00");
+
+        Long confirmed = orderService.createOrder(orderRequest(toy, 2, book, 1)).getId();
+        Long cancelled = orderService.createOrder(orderRequest(toy, 1, null, 0)).getId();
+        Long shipped = orderService.createOrder(orderRequest(book, 3, null, 0)).getId();
+        orderService.changeStatus(confirmed, OrderStatus.CONFIRMED);
+        orderService.changeStatus(cancelled, OrderStatus.CONFIRMED);
+        orderService.cancelOrder(cancelled);
+        orderService.changeStatus(shipped, OrderStatus.CONFIRMED);
+        orderService.changeStatus(shipped, OrderStatus.SHIPPED);
+
+        LocalDate today = LocalDate.now();
+        List<DailyRevenueReport> revenue = reportService.dailyRevenue(today, today);
+        List<CategorySalesReport> categories = reportService.categorySales(today, today);
+        List<ProductSalesReport> products = reportService.topProducts(10);
+
+        assertThat(revenue)
+                .extracting(DailyRevenueReport::status, DailyRevenueReport::orderCount, r -> r.revenue().setScale(2))
+                .containsExactly(
+                        tuple(OrderStatus.CANCELLED, 1L, new BigDecimal("10.00")),
+                        tuple(OrderStatus.CONFIRMED, 1L, new BigDecimal("25.00")),
+                        tuple(OrderStatus.SHIPPED, 1L, new BigDecimal("15.00")));
+        assertThat(categories)
+                .extracting(CategorySalesReport::category, CategorySalesReport::unitsSold, r -> r.revenue().setScale(2))
+                .containsExactly(
+                        tuple("books", 4L, new BigDecimal("20.00")),
+                        tuple("toys", 2L, new BigDecimal("20.00")));
+        assertThat(products)
+                .extracting(ProductSalesReport::productId, ProductSalesReport::unitsSold)
+                .containsExactly(tuple(book.getId(), 4L), tuple(toy.getId(), 2L));
+
+        reportService.rebuild();
+
+        assertThat(reportService.dailyRevenue(today, today)).isEqualTo(revenue);
+        assertThat(reportService.categorySales(today, today)).isEqualTo(categories);
+        assertThat(reportService.topProducts(10)).isEqualTo(products);
+    }
+
+    @Test
+    void cancellationIsTakenOffTheCategoryTheOrderWasSoldIn() {
+        Product lamp = createProduct("Lamp", "lighting", "7.00");
+        Long order = orderService.createOrder(orderRequest(lamp, 1, null, 0)).getId();
+        orderService.changeStatus(order, OrderStatus.CONFIRMED);
+
+        lamp.setCategory("furniture");
+        productService.update(lamp.getId(), lamp);
+        orderService.cancelOrder(order);
+
+        // categories that net to zero are left out of the report, so neither may show up
+        LocalDate today = LocalDate.now();
+        assertThat(reportService.categorySales(today, today))
+                .extracting(CategorySalesReport::category).doesNotContain("lighting", "furniture");
+
+        reportService.rebuild();
+        assertThat(reportService.categorySales(today, today))
+                .extracting(CategorySalesReport::category).doesNotContain("lighting", "furniture");
+    }
+
+    @Test
+    void lowStockListsProductsAtOrBelowThreshold() {
+        Product scarce = createProduct("Scarce", "low-stock", "1.00");
+        scarce.setStock(-1);
+        productRepository.save(scarce);
+
+        List<LowStockProduct> low = reportService.lowStock(-1, 10);
+
+        assertThat(low).extracting(LowStockProduct::id).containsExactly(scarce.getId());
+    }
+
+    private Product createProduct(String name, String category, String price) {
+        return productRepository.save(product(name, category, new BigDecimal(price), 10));
+    }
+
+    private static CreateOrderRequest orderRequest(Product first, int firstQty, Product second, int secondQty) {
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        items.add(line(first, firstQty));
+        if (second != null) {
+            items.add(line(second, secondQty));
+        }
+        return TestFixtures.orderRequest("Report Customer", "report@example.com", items);
+    }
+}
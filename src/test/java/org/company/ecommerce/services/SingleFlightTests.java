@@ -0,0 +1,132 @@
+package org.company.ecommerce.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "catalog.single-flight.timeout=500ms")
+@ActiveProfiles("test")
+class SingleFlightTests {
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentIdenticalCallsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        int callers = 8;
+        CountDownLatch arrived = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        double coalescedBefore = count("coalesced-test", "coalesced");
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    arrived.countDown();
+                    return singleFlight.execute("coalesced-test", () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return "page";
+                    }, 0, 10);
+                }));
+            }
+            // callers that have arrived get a moment to join the load in flight
+            arrived.await();
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(count("coalesced-test", "coalesced") - coalescedBefore).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void nothingIsKeptAfterTheLoadFinishes() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("sequential-test", loads::incrementAndGet, "a", null);
+        singleFlight.execute("sequential-test", loads::incrementAndGet, "a", null);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void waitingCallersSeeTheLeadersFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = pool.submit(() -> singleFlight.execute("failure-test", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("database down");
+            }, 1));
+            started.await();
+
+            CompletableFuture<Object> follower = CompletableFuture.supplyAsync(
+                    () -> singleFlight.execute("failure-test", () -> "own load", 1));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(follower::join).hasRootCauseMessage("database down");
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("database down");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void waiterLoadsItselfAfterTheTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> singleFlight.execute("timeout-test", () -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }, 1));
+            started.await();
+
+            assertThat(singleFlight.execute("timeout-test", () -> "own load", 1)).isEqualTo("own load");
+            assertThat(count("timeout-test", "timeout")).isEqualTo(1);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private double count(String operation, String outcome) {
+        var counter = meterRegistry.find("catalog.single-flight").tags("operation", operation, "outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.company.ecommerce.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.company.ecommerce.models.Product;
+import org.company.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.company.ecommerce.TestFixtures.product;
+
+// mvn test -Dtest=StockLedgerBenchmarkTests -Dbenchmarks=true
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class StockLedgerBenchmarkTests {
+
+    private static final int THREADS = 32;
+    private static final int CONFIRMATIONS_PER_THREAD = 2_000;
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareDatabaseAndInMemoryConfirmationThroughput() throws Exception {
+        DatabaseStockLedger database = beanFactory.createBean(DatabaseStockLedger.class);
+        Product dbSku = createProduct();
+        double dbRate = run(database, dbSku.getId());
+
+        Product memorySku = createProduct();
+        InMemoryStockLedger memory = beanFactory.createBean(InMemoryStockLedger.class);
+        double memoryRate = run(memory, memorySku.getId());
+        memory.flush();
+
+        log.info(String.format("database ledger:  %,.0f confirmations/sec", dbRate));
+        log.info(String.format("in-memory ledger: %,.0f confirmations/sec (%.1fx)", memoryRate, memoryRate / dbRate));
+
+        int expected = INITIAL_STOCK - THREADS * CONFIRMATIONS_PER_THREAD;
+        assertThat(productRepository.findStockById(dbSku.getId())).contains(expected);
+        assertThat(productRepository.findStockById(memorySku.getId())).contains(expected);
+    }
+
+    private double run(StockLedger ledger, Long productId) throws Exception {
+        SortedMap<Long, Integer> line = new TreeMap<>();
+        line.put(productId, 1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < CONFIRMATIONS_PER_THREAD; i++) {
+                    tx.executeWithoutResult(s -> ledger.reserve(line));
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return THREADS * CONFIRMATIONS_PER_THREAD / (elapsed / 1e9);
+    }
+
+    private Product createProduct() {
+        return productRepository.save(product("Benchmark SKU", "benchmark", BigDecimal.ONE, INITIAL_STOCK));
+    }
+}